@@ -0,0 +1,655 @@
+package com.utils.demo.utils;
+
+import org.quartz.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * <p>异步调度管理器
+ *
+ * <p>将QuartzManagerUtil的操作提交到线程池中执行并返回CompletableFuture，调用线程不会阻塞在JobStore的读写上<br>
+ * 等待执行的操作数量有上限，达到上限时新的操作直接以RejectedExecutionException失败<br>
+ * 单个任务的操作按其TriggerKey及JobKey排队，涉及同一TriggerKey或同一JobKey的操作(不论种类)按提交顺序依次执行，
+ * 例如registerTask(jobDetail, trigger)与之后的deleteJob(jobDetail.getKey())及deleteTask(trigger.getKey())<br>
+ * 批量操作及作用于整个调度器的操作(启动、关闭、清空、批量注册、批量删除、同步等)作为屏障，在之前提交的所有操作结束后执行，
+ * 之后提交的操作在其结束后执行<br>
+ * 与Key相同、尚未开始执行的同种操作合并：注册与更新只执行最后一次提交的内容，被替换的调用方以CancellationException失败，
+ * 删除、查询、启动、关闭及清空的调用方共用同一个执行结果<br>
+ * 只给出TriggerKey的deleteTask与只给出JobKey的deleteJob之间不保证执行顺序
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class AsyncQuartzManager {
+
+    /**
+     * 实际执行操作的调度管理器
+     */
+    private final QuartzManagerUtil quartzManagerUtil;
+
+    /**
+     * 执行操作的线程池
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 等待及正在执行的操作数量上限
+     */
+    private final int maxPending;
+
+    /**
+     * 等待及正在执行的操作数量限制
+     */
+    private final Semaphore permits;
+
+    /**
+     * 作用于整个调度器的操作的Key列表
+     */
+    private static final List<Object> SCHEDULER_WIDE = Collections.emptyList();
+
+    /**
+     * 每个TriggerKey及JobKey最后提交的操作，新的操作在其之后执行，读写时持有其锁
+     */
+    private final Map<Object, PendingOperation<?>> tails = new HashMap<>();
+
+    /**
+     * 最后提交且尚未结束的屏障操作，之后提交的操作都在其结束后执行
+     */
+    private PendingOperation<?> barrier;
+
+    /**
+     * 创建异步调度管理器
+     *
+     * @param quartzManagerUtil 实际执行操作的调度管理器
+     * @param executor          执行操作的线程池
+     * @param maxPending        等待及正在执行的操作数量上限
+     */
+    public AsyncQuartzManager(QuartzManagerUtil quartzManagerUtil, ExecutorService executor, int maxPending) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("maxPending必须大于0");
+        }
+        this.quartzManagerUtil = quartzManagerUtil;
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.permits = new Semaphore(maxPending);
+    }
+
+    /**
+     * 使用默认线程池创建异步调度管理器
+     *
+     * @param quartzManagerUtil 实际执行操作的调度管理器
+     * @param maxPending        等待及正在执行的操作数量上限
+     */
+    public AsyncQuartzManager(QuartzManagerUtil quartzManagerUtil, int maxPending) {
+        this(quartzManagerUtil, newDefaultExecutor(), maxPending);
+    }
+
+    /**
+     * 创建默认线程池
+     *
+     * <p>运行在JDK 21及以上版本时使用虚拟线程，否则使用与CPU核数相同的固定线程池
+     *
+     * @return 线程池
+     */
+    public static ExecutorService newDefaultExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    /**
+     * 获取等待及正在执行的操作数量
+     *
+     * @return 操作数量
+     */
+    public int getPendingCount() {
+        return maxPending - permits.availablePermits();
+    }
+
+    /**
+     * 异步向调度器中注册任务
+     *
+     * @param jobDetail 任务jobDetail实例
+     * @param trigger   触发器trigger实例
+     * @return 注册完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> registerTask(JobDetail jobDetail, Trigger trigger) {
+        return this.enqueue("registerTask", Arrays.asList(trigger.getKey(), jobDetail.getKey()), Merge.REPLACE, () -> {
+            quartzManagerUtil.registerTask(jobDetail, trigger);
+            return null;
+        });
+    }
+
+    /**
+     * 异步向调度器中注册任务
+     *
+     * @param jobDetail  任务jobDetail实例
+     * @param triggerKey 触发器triggerKey
+     * @param cron       触发表达式
+     * @return 注册完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> registerTask(JobDetail jobDetail, TriggerKey triggerKey, String cron) {
+        return this.registerTask(jobDetail, quartzManagerUtil.createTrigger(triggerKey, cron));
+    }
+
+    /**
+     * 异步向调度器中批量注册任务，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param tasks 任务JobDetail实例与其触发器集合的映射
+     * @return 批量注册结果报告
+     */
+    public CompletableFuture<TaskReport> registerTasks(Map<JobDetail, Set<? extends Trigger>> tasks) {
+        return this.enqueue("registerTasks", SCHEDULER_WIDE, Merge.NONE, () -> quartzManagerUtil.registerTasks(tasks));
+    }
+
+    /**
+     * 异步更新调度器中任务
+     *
+     * @param jobDetail jobDetail实例
+     * @param trigger   trigger实例
+     * @return 更新完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> updateTask(JobDetail jobDetail, Trigger trigger) {
+        return this.enqueue("updateTask", Arrays.asList(trigger.getKey(), jobDetail.getKey()), Merge.REPLACE, () -> {
+            quartzManagerUtil.updateTask(jobDetail, trigger);
+            return null;
+        });
+    }
+
+    /**
+     * 异步更新调度器中任务
+     *
+     * @param jobDetail  任务jobDetail实例
+     * @param triggerKey 触发器triggerKey
+     * @param cron       触发表达式
+     * @return 更新完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> updateTask(JobDetail jobDetail, TriggerKey triggerKey, String cron) {
+        return this.updateTask(jobDetail, quartzManagerUtil.createTrigger(triggerKey, cron));
+    }
+
+    /**
+     * 异步批量更新调度器中任务，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param tasks 任务JobDetail实例与其触发器集合的映射
+     * @return 批量更新结果报告
+     */
+    public CompletableFuture<TaskReport> updateTasks(Map<JobDetail, Set<? extends Trigger>> tasks) {
+        return this.enqueue("updateTasks", SCHEDULER_WIDE, Merge.NONE, () -> quartzManagerUtil.updateTasks(tasks));
+    }
+
+    /**
+     * 异步批量修改触发器cron表达式，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param crons 触发器TriggerKey与新cron表达式的映射
+     * @return 批量修改结果报告
+     */
+    public CompletableFuture<TaskReport> rescheduleTasks(Map<TriggerKey, String> crons) {
+        return this.enqueue("rescheduleTasks", SCHEDULER_WIDE, Merge.NONE, () -> quartzManagerUtil.rescheduleTasks(crons));
+    }
+
+    /**
+     * 异步同步任务，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param tasks 期望的任务JobDetail实例与其触发器集合的映射
+     * @return 同步结果报告
+     */
+    public CompletableFuture<TaskReport> syncTasks(Map<JobDetail, Set<? extends Trigger>> tasks) {
+        return this.enqueue("syncTasks", SCHEDULER_WIDE, Merge.NONE, () -> quartzManagerUtil.syncTasks(tasks));
+    }
+
+    /**
+     * 异步同步任务，只删除指定任务组内多余的Job，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param tasks     期望的任务JobDetail实例与其触发器集合的映射
+     * @param jobGroups 需要同步的任务组
+     * @return 同步结果报告
+     */
+    public CompletableFuture<TaskReport> syncTasks(Map<JobDetail, Set<? extends Trigger>> tasks, Collection<String> jobGroups) {
+        return this.enqueue("syncTasks", SCHEDULER_WIDE, Merge.NONE, () -> quartzManagerUtil.syncTasks(tasks, jobGroups));
+    }
+
+    /**
+     * 异步从调度器中删除任务
+     *
+     * @param triggerKey 触发器TriggerKey
+     * @return 删除完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> deleteTask(TriggerKey triggerKey) {
+        return this.enqueue("deleteTask", Collections.singletonList(triggerKey), Merge.JOIN, () -> {
+            quartzManagerUtil.deleteTask(triggerKey);
+            return null;
+        });
+    }
+
+    /**
+     * 异步从调度器中删除使用同一Job实例的任务
+     *
+     * @param jobKey 需要删除的JobKey
+     * @return 删除完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> deleteJob(JobKey jobKey) {
+        return this.enqueue("deleteJob", Collections.singletonList(jobKey), Merge.JOIN, () -> {
+            quartzManagerUtil.deleteJob(jobKey);
+            return null;
+        });
+    }
+
+    /**
+     * 异步批量删除任务，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param triggerKeys 需要删除的触发器TriggerKey
+     * @param progress    进度回调
+     * @return 批量删除结果报告
+     */
+    public CompletableFuture<TaskReport> deleteTasks(Collection<TriggerKey> triggerKeys, BatchProgress progress) {
+        return this.enqueue("deleteTasks", SCHEDULER_WIDE, Merge.NONE, () -> quartzManagerUtil.deleteTasks(triggerKeys, progress));
+    }
+
+    /**
+     * 异步批量删除任务，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param triggerKeys 需要删除的触发器TriggerKey
+     * @return 批量删除结果报告
+     */
+    public CompletableFuture<TaskReport> deleteTasks(Collection<TriggerKey> triggerKeys) {
+        return this.deleteTasks(triggerKeys, BatchProgress.NONE);
+    }
+
+    /**
+     * 异步删除触发器组内所有任务，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param triggerGroup 触发器组名
+     * @param progress     进度回调
+     * @return 批量删除结果报告
+     */
+    public CompletableFuture<TaskReport> deleteTaskGroup(String triggerGroup, BatchProgress progress) {
+        return this.enqueue("deleteTaskGroup", SCHEDULER_WIDE, Merge.NONE, () -> quartzManagerUtil.deleteTaskGroup(triggerGroup, progress));
+    }
+
+    /**
+     * 异步批量删除Job，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param jobKeys  需要删除的JobKey
+     * @param progress 进度回调
+     * @return 批量删除结果报告
+     */
+    public CompletableFuture<TaskReport> deleteJobs(Collection<JobKey> jobKeys, BatchProgress progress) {
+        return this.enqueue("deleteJobs", SCHEDULER_WIDE, Merge.NONE, () -> quartzManagerUtil.deleteJobs(jobKeys, progress));
+    }
+
+    /**
+     * 异步批量删除Job，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param jobKeys 需要删除的JobKey
+     * @return 批量删除结果报告
+     */
+    public CompletableFuture<TaskReport> deleteJobs(Collection<JobKey> jobKeys) {
+        return this.deleteJobs(jobKeys, BatchProgress.NONE);
+    }
+
+    /**
+     * 异步删除任务组内所有Job，作为屏障在之前提交的所有操作之后执行
+     *
+     * @param jobGroup 任务组名
+     * @param progress 进度回调
+     * @return 批量删除结果报告
+     */
+    public CompletableFuture<TaskReport> deleteJobGroup(String jobGroup, BatchProgress progress) {
+        return this.enqueue("deleteJobGroup", SCHEDULER_WIDE, Merge.NONE, () -> quartzManagerUtil.deleteJobGroup(jobGroup, progress));
+    }
+
+    /**
+     * 异步获取JobKey对应的触发器列表
+     *
+     * @param jobKey 需要寻找的JobKey
+     * @return 触发器列表
+     */
+    public CompletableFuture<List<? extends Trigger>> getTriggersByJobKey(JobKey jobKey) {
+        return this.enqueue("getTriggersByJobKey", Collections.singletonList(jobKey), Merge.JOIN,
+                () -> quartzManagerUtil.getTriggersByJobKey(jobKey));
+    }
+
+    /**
+     * 异步获取所有Job对象的Key
+     *
+     * @return 含有所有Job对象的集合
+     */
+    public CompletableFuture<Set<JobKey>> getAllJobs() {
+        return this.enqueue("getAllJobs", SCHEDULER_WIDE, Merge.JOIN, quartzManagerUtil::getAllJobs);
+    }
+
+    /**
+     * 异步获取所有Trigger对象的Key
+     *
+     * @return 含有所有Trigger对象的集合
+     */
+    public CompletableFuture<Set<TriggerKey>> getAllTriggers() {
+        return this.enqueue("getAllTriggers", SCHEDULER_WIDE, Merge.JOIN, quartzManagerUtil::getAllTriggers);
+    }
+
+    /**
+     * 异步向调度器中注册任务监听
+     *
+     * @param jobListenerClass 需要监听的任务类
+     * @param jobKey           需要监听的任务的jobKey
+     * @return 注册完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> registerJobDetailListener(Class<? extends JobListener> jobListenerClass, JobKey jobKey) {
+        return this.enqueue("registerJobDetailListener", Collections.singletonList(jobKey), Merge.NONE, () -> {
+            quartzManagerUtil.registerJobDetailListener(jobListenerClass, jobKey);
+            return null;
+        });
+    }
+
+    /**
+     * 异步向调度器中注册触发器监听
+     *
+     * @param triggerListenerClass 触发器监听类
+     * @param triggerKey           需要监听的触发器的triggerKey
+     * @return 注册完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> registerTriggerListener(Class<? extends TriggerListener> triggerListenerClass, TriggerKey triggerKey) {
+        return this.enqueue("registerTriggerListener", Collections.singletonList(triggerKey), Merge.NONE, () -> {
+            quartzManagerUtil.registerTriggerListener(triggerListenerClass, triggerKey);
+            return null;
+        });
+    }
+
+    /**
+     * 异步启动调度器
+     *
+     * @return 启动完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> startScheduler() {
+        return this.enqueue("startScheduler", SCHEDULER_WIDE, Merge.JOIN, () -> {
+            quartzManagerUtil.startScheduler();
+            return null;
+        });
+    }
+
+    /**
+     * 异步关闭调度器
+     *
+     * @return 关闭完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> shutdownScheduler() {
+        return this.enqueue("shutdownScheduler", SCHEDULER_WIDE, Merge.JOIN, () -> {
+            quartzManagerUtil.shutdownScheduler();
+            return null;
+        });
+    }
+
+    /**
+     * 异步清空调度器中任务
+     *
+     * @return 清空完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> clearScheduler() {
+        return this.clearScheduler(BatchProgress.NONE);
+    }
+
+    /**
+     * 异步清空调度器中任务
+     *
+     * @param progress 进度回调
+     * @return 清空完成时完成的CompletableFuture
+     */
+    public CompletableFuture<Void> clearScheduler(BatchProgress progress) {
+        return this.enqueue("clearScheduler", SCHEDULER_WIDE, progress == BatchProgress.NONE ? Merge.JOIN : Merge.NONE, () -> {
+            quartzManagerUtil.clearScheduler(progress);
+            return null;
+        });
+    }
+
+    /**
+     * 关闭执行操作的线程池，已提交的操作会继续执行
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 提交操作，操作在其所有Key上之前提交的操作及之前提交的屏障操作结束后执行
+     *
+     * <p>keys为空时为作用于整个调度器的屏障操作，在之前提交的所有操作结束后执行，之后提交的操作都在其结束后执行<br>
+     * 与Key相同、尚未开始执行的队尾同种操作合并：JOIN时共用同一个结果，
+     * REPLACE时以本次提交的内容替换，被替换的调用方以CancellationException失败
+     *
+     * @param operation 操作名
+     * @param keys      操作对象的TriggerKey及JobKey，为空时表示整个调度器
+     * @param merge     与尚未开始执行的同种操作的合并方式
+     * @param action    操作
+     * @param <T>       操作结果类型
+     * @return 操作结果
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> enqueue(String operation, List<Object> keys, Merge merge, Callable<T> action) {
+        PendingOperation<T> created = new PendingOperation<>(operation, keys, action, permits.tryAcquire());
+        Set<PendingOperation<?>> before = Collections.newSetFromMap(new IdentityHashMap<>());
+        CompletableFuture<T> joined = null;
+        CompletableFuture<T> superseded = null;
+        synchronized (tails) {
+            PendingOperation<?> last = keys.isEmpty() ? (tails.isEmpty() ? barrier : null) : this.commonTail(keys);
+            if (merge != Merge.NONE && last != null && last.operation.equals(operation) && last.keys.equals(keys)) {
+                PendingOperation<T> tail = (PendingOperation<T>) last;
+                CompletableFuture<T> merged = merge == Merge.REPLACE ? tail.replace(action) : tail.join();
+                if (merged != null) {
+                    joined = tail.getFuture();
+                    superseded = merge == Merge.REPLACE ? merged : null;
+                }
+            }
+            if (joined == null) {
+                if (barrier != null) {
+                    before.add(barrier);
+                }
+                if (keys.isEmpty()) {
+                    before.addAll(tails.values());
+                    tails.clear();
+                    barrier = created;
+                } else {
+                    for (Object key : keys) {
+                        PendingOperation<?> previous = tails.put(key, created);
+                        if (previous != null) {
+                            before.add(previous);
+                        }
+                    }
+                }
+            }
+        }
+        if (joined != null) {
+            if (created.admitted) {
+                permits.release();
+            }
+            if (superseded != null) {
+                superseded.completeExceptionally(new CancellationException("已被之后提交的同一操作替换"));
+            }
+            return joined;
+        }
+        if (!created.admitted) {
+            created.getFuture().completeExceptionally(new RejectedExecutionException("等待执行的操作过多"));
+        }
+        //在之前的操作结束后执行，无论其成功与否
+        CompletableFuture<?>[] done = new CompletableFuture<?>[before.size()];
+        int i = 0;
+        for (PendingOperation<?> previous : before) {
+            done[i++] = previous.done;
+        }
+        CompletableFuture.allOf(done).whenComplete((r, e) -> this.run(created));
+        return created.getFuture();
+    }
+
+    /**
+     * 获取所有Key共同的队尾操作，调用方需持有tails的锁
+     *
+     * @param keys 操作对象的Key
+     * @return 所有Key的队尾为同一操作时返回该操作，否则返回null
+     */
+    private PendingOperation<?> commonTail(List<Object> keys) {
+        PendingOperation<?> tail = tails.get(keys.get(0));
+        for (Object key : keys) {
+            if (tails.get(key) != tail) {
+                return null;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * 执行轮到的操作，结束后从队尾移除并放行之后的操作
+     *
+     * @param operation 操作
+     * @param <T>       操作结果类型
+     */
+    private <T> void run(PendingOperation<T> operation) {
+        Callable<T> action = operation.start();
+        if (!operation.admitted) {
+            this.finish(operation);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    operation.getFuture().complete(action.call());
+                } catch (Throwable e) {
+                    operation.getFuture().completeExceptionally(e);
+                } finally {
+                    permits.release();
+                    this.finish(operation);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            operation.getFuture().completeExceptionally(e);
+            this.finish(operation);
+        }
+    }
+
+    private void finish(PendingOperation<?> operation) {
+        synchronized (tails) {
+            for (Object key : operation.keys) {
+                tails.remove(key, operation);
+            }
+            if (barrier == operation) {
+                barrier = null;
+            }
+        }
+        operation.done.complete(null);
+    }
+
+    /**
+     * 与尚未开始执行的同种操作的合并方式
+     */
+    private enum Merge {
+        /**
+         * 不合并
+         */
+        NONE,
+        /**
+         * 共用同一个结果
+         */
+        JOIN,
+        /**
+         * 以之后提交的内容替换
+         */
+        REPLACE
+    }
+
+    /**
+     * 等待或正在执行的操作
+     *
+     * @param <T> 操作结果类型
+     */
+    private static final class PendingOperation<T> {
+
+        /**
+         * 操作名
+         */
+        private final String operation;
+
+        /**
+         * 操作对象的Key，为空时为屏障操作
+         */
+        private final List<Object> keys;
+
+        /**
+         * 是否获得了执行许可
+         */
+        private final boolean admitted;
+
+        /**
+         * 操作结束时完成，用于放行之后的操作
+         */
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Callable<T> action;
+
+        private boolean started;
+
+        private PendingOperation(String operation, List<Object> keys, Callable<T> action, boolean admitted) {
+            this.operation = operation;
+            this.keys = keys;
+            this.action = action;
+            this.admitted = admitted;
+        }
+
+        /**
+         * 尚未开始执行时加入该操作
+         *
+         * @return 操作结果，已开始执行或未获得执行许可时返回null
+         */
+        private synchronized CompletableFuture<T> join() {
+            return started || !admitted ? null : future;
+        }
+
+        /**
+         * 尚未开始执行时替换操作内容，之前的调用方获得的结果由调用者完成
+         *
+         * @param action 新的操作
+         * @return 被替换的调用方的结果，已开始执行或未获得执行许可时返回null
+         */
+        private synchronized CompletableFuture<T> replace(Callable<T> action) {
+            if (started || !admitted) {
+                return null;
+            }
+            CompletableFuture<T> superseded = future;
+            this.future = new CompletableFuture<>();
+            this.action = action;
+            return superseded;
+        }
+
+        private synchronized CompletableFuture<T> getFuture() {
+            return future;
+        }
+
+        /**
+         * 标记为开始执行并返回最终的操作内容
+         *
+         * @return 操作
+         */
+        private synchronized Callable<T> start() {
+            started = true;
+            return action;
+        }
+    }
+}
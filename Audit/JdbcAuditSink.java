@@ -0,0 +1,331 @@
+package com.utils.demo.Audit;
+
+import com.utils.demo.History.ExecutionRecord;
+import com.utils.demo.Listener.AsyncLogWriter;
+import com.utils.demo.Listener.LatencyHistogram;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>JDBC批量审计输出
+ *
+ * <p>监听器线程只将执行记录放入有界队列，不访问数据库<br>
+ * 由单独的后台线程在攒满一批或距批次中最早的记录超过刷新间隔时，使用专用连接以JDBC批量插入写入并提交<br>
+ * 队列满时按溢出策略丢弃记录或阻塞等待<br>
+ * 调用install()后AuditJobListener与AuditTriggerListener将记录写入此输出
+ *
+ * <p>审计表结构：
+ * <pre>
+ * CREATE TABLE QRTZ_AUDIT (
+ *     JOB_NAME VARCHAR(200) NOT NULL, JOB_GROUP VARCHAR(200) NOT NULL,
+ *     TRIGGER_NAME VARCHAR(200), TRIGGER_GROUP VARCHAR(200),
+ *     START_TIME BIGINT NOT NULL, END_TIME BIGINT NOT NULL,
+ *     OUTCOME VARCHAR(16) NOT NULL, EXCEPTION_CLASS VARCHAR(250))
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class JdbcAuditSink implements AutoCloseable {
+
+    /**
+     * 当前安装的审计输出，为null时不做审计
+     */
+    private static volatile JdbcAuditSink installed;
+
+    private final Connection connection;
+
+    private final String insertSql;
+
+    private final int batchSize;
+
+    private final long flushIntervalMillis;
+
+    private final AsyncLogWriter.OverflowPolicy policy;
+
+    private final ArrayBlockingQueue<ExecutionRecord> queue;
+
+    private final Thread flusher;
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * 每批executeBatch及提交的耗时(毫秒)
+     */
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+
+    /**
+     * 每批提交时批次中最早记录已等待的时间(毫秒)
+     */
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+
+    private volatile boolean running = true;
+
+    /**
+     * 创建JDBC批量审计输出，连接由审计输出独占并在关闭时一同关闭
+     *
+     * @param connection          专用连接
+     * @param table               审计表名
+     * @param batchSize           每批插入的最大记录数
+     * @param flushIntervalMillis 记录在队列中的最长等待时间(毫秒)
+     * @param capacity            队列容量
+     * @param policy              队列满时的处理策略
+     * @throws SQLException 设置连接失败
+     */
+    public JdbcAuditSink(Connection connection, String table, int batchSize, long flushIntervalMillis,
+                         int capacity, AsyncLogWriter.OverflowPolicy policy) throws SQLException {
+        if (batchSize <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("batchSize及capacity必须大于0");
+        }
+        connection.setAutoCommit(false);
+        this.connection = connection;
+        this.insertSql = "INSERT INTO " + table + " (JOB_NAME, JOB_GROUP, TRIGGER_NAME, TRIGGER_GROUP,"
+                + " START_TIME, END_TIME, OUTCOME, EXCEPTION_CLASS) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.policy = policy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flusher = new Thread(this::run, "JdbcAuditSink");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * 使用默认配置创建JDBC批量审计输出，每批500条、最长等待1秒、队列容量65536、队列满时丢弃
+     *
+     * @param url      数据库地址
+     * @param user     用户名
+     * @param password 密码
+     * @param table    审计表名
+     * @return JDBC批量审计输出
+     * @throws SQLException 建立连接失败
+     */
+    public static JdbcAuditSink open(String url, String user, String password, String table) throws SQLException {
+        return new JdbcAuditSink(DriverManager.getConnection(url, user, password), table,
+                500, 1000, 65536, AsyncLogWriter.OverflowPolicy.DROP);
+    }
+
+    /**
+     * 设置AuditJobListener与AuditTriggerListener使用的审计输出，传入null时停止审计
+     *
+     * @param sink 审计输出
+     */
+    public static void install(JdbcAuditSink sink) {
+        installed = sink;
+    }
+
+    /**
+     * 获取当前安装的审计输出
+     *
+     * @return 审计输出，未安装时返回null
+     */
+    public static JdbcAuditSink current() {
+        return installed;
+    }
+
+    /**
+     * 记录一条执行记录
+     *
+     * @param record 执行记录
+     * @return 记录被丢弃时返回false
+     */
+    public boolean write(ExecutionRecord record) {
+        if (running) {
+            if (policy == AsyncLogWriter.OverflowPolicy.DROP) {
+                if (queue.offer(record)) {
+                    return true;
+                }
+            } else {
+                try {
+                    //关闭后不再阻塞
+                    while (running) {
+                        if (queue.offer(record, 10, TimeUnit.MILLISECONDS)) {
+                            return true;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * 后台线程循环取出记录并批量写入，每次最多等待100毫秒以便及时响应关闭
+     */
+    private void run() {
+        List<ExecutionRecord> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (running) {
+            try {
+                long wait = batch.isEmpty() ? 100 : Math.min(100, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+                ExecutionRecord next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : null;
+                if (next != null) {
+                    if (batch.isEmpty()) {
+                        //批次中最早的记录最多等待flushIntervalMillis
+                        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (batch.size() >= batchSize || (!batch.isEmpty() && deadline - System.nanoTime() <= 0)) {
+                    this.writeBatch(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        this.writeBatch(batch);
+    }
+
+    /**
+     * 立即写出队列中的所有记录
+     */
+    public void flush() {
+        List<ExecutionRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            this.writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 以一个JDBC批量插入写入并提交，失败时回滚并丢弃该批记录
+     *
+     * @param batch 执行记录
+     */
+    private synchronized void writeBatch(List<ExecutionRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long begin = System.currentTimeMillis();
+        try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
+            long oldest = Long.MAX_VALUE;
+            for (ExecutionRecord record : batch) {
+                statement.setString(1, record.getJobKey().getName());
+                statement.setString(2, record.getJobKey().getGroup());
+                if (record.getTriggerKey() == null) {
+                    statement.setNull(3, Types.VARCHAR);
+                    statement.setNull(4, Types.VARCHAR);
+                } else {
+                    statement.setString(3, record.getTriggerKey().getName());
+                    statement.setString(4, record.getTriggerKey().getGroup());
+                }
+                statement.setLong(5, record.getStartTime());
+                statement.setLong(6, record.getEndTime());
+                statement.setString(7, record.getOutcome().name());
+                statement.setString(8, record.getExceptionClass());
+                statement.addBatch();
+                oldest = Math.min(oldest, record.getEndTime());
+            }
+            statement.executeBatch();
+            connection.commit();
+            long end = System.currentTimeMillis();
+            writeLatency.record(end - begin);
+            flushLatency.record(end - oldest);
+            written.add(batch.size());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            failed.add(batch.size());
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackException) {
+                rollbackException.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 获取已写入的记录数
+     *
+     * @return 记录数
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * 获取因队列满或已关闭被丢弃的记录数
+     *
+     * @return 记录数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 获取因写入失败被丢弃的记录数
+     *
+     * @return 记录数
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * 获取队列中等待写入的记录数
+     *
+     * @return 记录数
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 获取每批executeBatch及提交的耗时分布(毫秒)
+     *
+     * @return 延迟直方图
+     */
+    public LatencyHistogram getWriteLatency() {
+        return writeLatency;
+    }
+
+    /**
+     * 获取每批提交时批次中最早记录已等待的时间分布(毫秒)
+     *
+     * @return 延迟直方图
+     */
+    public LatencyHistogram getFlushLatency() {
+        return flushLatency;
+    }
+
+    /**
+     * 写出队列中剩余的记录后关闭连接，关闭后的记录会被丢弃
+     *
+     * @throws SQLException 关闭连接失败
+     */
+    @Override
+    public void close() throws SQLException {
+        if (installed == this) {
+            installed = null;
+        }
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.flush();
+        connection.close();
+    }
+}
@@ -0,0 +1,26 @@
+package com.utils.demo.utils;
+
+/**
+ * <p>批量操作进度回调
+ *
+ * <p>每完成一批操作后调用一次
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+@FunctionalInterface
+public interface BatchProgress {
+
+    /**
+     * 不处理进度的回调
+     */
+    BatchProgress NONE = (completed, total) -> { };
+
+    /**
+     * 一批操作完成时触发
+     *
+     * @param completed 已处理的数量
+     * @param total     需要处理的总数
+     */
+    void onProgress(int completed, int total);
+}
@@ -0,0 +1,35 @@
+package com.utils.demo.Benchmark;
+
+import com.utils.demo.Listener.LatencyHistogram;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 触发速率基准测试使用的任务
+ *
+ * 记录从计划触发时间到开始执行的延迟，并通知测试线程
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class BenchmarkJob implements Job {
+
+    /**
+     * 从计划触发时间到开始执行的延迟(毫秒)
+     */
+    static final LatencyHistogram LATENCY = new LatencyHistogram();
+
+    /**
+     * 本轮测量剩余的执行次数
+     */
+    static volatile CountDownLatch remaining = new CountDownLatch(0);
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        LATENCY.record(System.currentTimeMillis() - jobExecutionContext.getScheduledFireTime().getTime());
+        remaining.countDown();
+    }
+}
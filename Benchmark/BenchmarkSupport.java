@@ -0,0 +1,118 @@
+package com.utils.demo.Benchmark;
+
+import com.utils.demo.Job.MyJob;
+import com.utils.demo.utils.QuartzManagerUtil;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基准测试公共方法
+ *
+ * 通过系统属性覆盖quartz.properties中的配置，使默认调度器使用RAMJobStore或H2内存数据库上的JobStoreTX<br>
+ * JMH为每组参数启动独立的JVM，因此必须在首次使用QuartzManagerUtil之前调用configureStore
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class BenchmarkSupport {
+
+    /**
+     * 内存存储
+     */
+    public static final String RAM = "RAM";
+
+    /**
+     * H2内存数据库上的JDBC存储
+     */
+    public static final String JDBC = "JDBC";
+
+    /**
+     * H2内存数据库连接地址
+     */
+    private static final String H2_URL = "jdbc:h2:mem:quartz;DB_CLOSE_DELAY=-1";
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 配置默认调度器使用的JobStore
+     *
+     * @param store RAM或JDBC
+     * @param threadCount 调度器线程数
+     * @throws Exception 建表失败
+     */
+    public static void configureStore(String store, int threadCount) throws Exception {
+        System.setProperty("org.quartz.scheduler.instanceName", "BenchmarkScheduler");
+        System.setProperty("org.quartz.threadPool.threadCount", String.valueOf(threadCount));
+        System.setProperty("org.quartz.scheduler.skipUpdateCheck", "true");
+        if (JDBC.equals(store)) {
+            createSchema();
+            System.setProperty("org.quartz.jobStore.class", "org.quartz.impl.jdbcjobstore.JobStoreTX");
+            System.setProperty("org.quartz.jobStore.driverDelegateClass", "org.quartz.impl.jdbcjobstore.StdJDBCDelegate");
+            System.setProperty("org.quartz.jobStore.dataSource", "bench");
+            System.setProperty("org.quartz.dataSource.bench.driver", "org.h2.Driver");
+            System.setProperty("org.quartz.dataSource.bench.URL", H2_URL);
+            System.setProperty("org.quartz.dataSource.bench.user", "sa");
+            System.setProperty("org.quartz.dataSource.bench.password", "");
+            System.setProperty("org.quartz.dataSource.bench.maxConnections", String.valueOf(threadCount + 2));
+        } else {
+            System.setProperty("org.quartz.jobStore.class", "org.quartz.simpl.RAMJobStore");
+        }
+    }
+
+    /**
+     * 使用quartz自带的H2建表脚本创建表
+     *
+     * @throws Exception 建表失败
+     */
+    private static void createSchema() throws Exception {
+        StringBuilder script = new StringBuilder();
+        try (InputStream in = BenchmarkSupport.class.getResourceAsStream("/org/quartz/impl/jdbcjobstore/tables_h2.sql");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().startsWith("--")) {
+                    script.append(line).append('\n');
+                }
+            }
+        }
+        try (Connection connection = DriverManager.getConnection(H2_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : script.toString().split(";")) {
+                if (!sql.trim().isEmpty()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    /**
+     * 创建count个使用MyJob的任务，每个任务一个cron触发器
+     *
+     * @param quartzManagerUtil 调度管理器
+     * @param count             任务数
+     * @param cron              cron表达式
+     * @return 任务与触发器的映射
+     */
+    public static Map<JobDetail, Set<? extends Trigger>> createTasks(QuartzManagerUtil quartzManagerUtil, int count, String cron) {
+        Map<JobDetail, Set<? extends Trigger>> tasks = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            JobDetail jobDetail = quartzManagerUtil.createJob(MyJob.class, "job" + i, "group" + (i % 10));
+            Trigger trigger = quartzManagerUtil.createTrigger("trigger" + i, "trgroup" + (i % 10), cron);
+            tasks.put(jobDetail, Collections.singleton(trigger));
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,44 @@
+package com.utils.demo.Benchmark;
+
+import com.utils.demo.utils.QuartzManagerUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createTrigger基准测试
+ *
+ * 只创建Trigger实例，不访问JobStore
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateTriggerBenchmark {
+
+    private QuartzManagerUtil quartzManagerUtil;
+
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkSupport.configureStore(BenchmarkSupport.RAM, 1);
+        quartzManagerUtil = new QuartzManagerUtil();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        quartzManagerUtil.shutdownScheduler();
+    }
+
+    @Benchmark
+    public Object createTrigger() {
+        int i = sequence++;
+        return quartzManagerUtil.createTrigger("trigger" + i, "trgroup" + (i & 7), "0 0/5 * * * ?");
+    }
+}
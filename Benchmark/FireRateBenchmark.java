@@ -0,0 +1,120 @@
+package com.utils.demo.Benchmark;
+
+import com.utils.demo.Listener.AsyncLogWriter;
+import com.utils.demo.Listener.MetricsJobListener;
+import com.utils.demo.Listener.MetricsTriggerListener;
+import com.utils.demo.Listener.StdJobListener;
+import com.utils.demo.Listener.StdTriggerListener;
+import com.utils.demo.utils.QuartzManagerUtil;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 触发速率基准测试
+ *
+ * 每次测量注册fires个立即触发的任务并等待全部执行完毕，比较不使用监听器、使用StdJobListener/StdTriggerListener、
+ * 使用异步日志输出及使用指标监听器时的差异<br>
+ * 从计划触发时间到开始执行的延迟在测试结束时输出
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FireRateBenchmark {
+
+    private static final String GROUP = "fire";
+
+    @Param({BenchmarkSupport.RAM, BenchmarkSupport.JDBC})
+    public String store;
+
+    @Param({"NONE", "STD", "STD_ASYNC", "METRICS"})
+    public String listeners;
+
+    @Param({"1000"})
+    public int fires;
+
+    private QuartzManagerUtil quartzManagerUtil;
+
+    private Map<JobDetail, Set<? extends Trigger>> tasks;
+
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        BenchmarkSupport.configureStore(store, 10);
+        quartzManagerUtil = new QuartzManagerUtil();
+        quartzManagerUtil.clearScheduler();
+        if ("STD".equals(listeners) || "STD_ASYNC".equals(listeners)) {
+            quartzManagerUtil.registerJobGroupListener(StdJobListener.class, GROUP);
+            quartzManagerUtil.registerTriggerGroupListener(StdTriggerListener.class, GROUP);
+        } else if ("METRICS".equals(listeners)) {
+            quartzManagerUtil.registerJobGroupListener(MetricsJobListener.class, GROUP);
+            quartzManagerUtil.registerTriggerGroupListener(MetricsTriggerListener.class, GROUP);
+        }
+        if ("STD_ASYNC".equals(listeners)) {
+            AsyncLogWriter.install(new AsyncLogWriter(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            }, 64 * 1024, AsyncLogWriter.OverflowPolicy.BLOCK));
+        }
+        BenchmarkJob.LATENCY.reset();
+        quartzManagerUtil.startScheduler();
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        int current = round++;
+        tasks = new LinkedHashMap<>(fires * 2);
+        for (int i = 0; i < fires; i++) {
+            JobDetail jobDetail = JobBuilder.newJob(BenchmarkJob.class)
+                    .withIdentity("job" + current + "-" + i, GROUP)
+                    .build();
+            Trigger trigger = TriggerBuilder.newTrigger()
+                    .withIdentity("trigger" + current + "-" + i, GROUP)
+                    .startNow()
+                    .build();
+            tasks.put(jobDetail, Collections.singleton(trigger));
+        }
+        BenchmarkJob.remaining = new CountDownLatch(fires);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws Exception {
+        quartzManagerUtil.shutdownScheduler();
+        AsyncLogWriter logWriter = AsyncLogWriter.current();
+        if (logWriter != null) {
+            logWriter.close();
+        }
+        System.out.println("trigger->execute latency(ms): mean=" + BenchmarkJob.LATENCY.getMean()
+                + ", p50=" + BenchmarkJob.LATENCY.getPercentile(50)
+                + ", p99=" + BenchmarkJob.LATENCY.getPercentile(99)
+                + ", max=" + BenchmarkJob.LATENCY.getMax());
+    }
+
+    @Benchmark
+    public void fireAll() throws Exception {
+        quartzManagerUtil.registerTasks(tasks);
+        BenchmarkJob.remaining.await();
+    }
+}
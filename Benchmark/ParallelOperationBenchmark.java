@@ -0,0 +1,117 @@
+package com.utils.demo.Benchmark;
+
+import com.utils.demo.utils.ParallelQuartzManager;
+import com.utils.demo.utils.QuartzManagerUtil;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按组并行批量操作基准测试
+ *
+ * 每次测量对分布在10个任务组、10个触发器组中的taskCount个任务执行批量删除、更新或修改cron，
+ * 比较不同并行度下ParallelQuartzManager的耗时<br>
+ * 删除及替换写入在RAMJobStore中持有同一把锁，在JobStoreTX中需要TRIGGER_ACCESS行锁，并行度增加时耗时不会成比例下降
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelOperationBenchmark {
+
+    /**
+     * 调度器线程数
+     */
+    private static final int THREAD_COUNT = 10;
+
+    /**
+     * JDBC连接池的最大连接数，为批量操作留出足够的连接
+     */
+    private static final int MAX_CONNECTIONS = THREAD_COUNT + 10;
+
+    @Param({BenchmarkSupport.RAM, BenchmarkSupport.JDBC})
+    public String store;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"10000"})
+    public int taskCount;
+
+    private QuartzManagerUtil quartzManagerUtil;
+
+    private ParallelQuartzManager parallelManager;
+
+    private Map<JobDetail, Set<? extends Trigger>> tasks;
+
+    private Map<JobDetail, Set<? extends Trigger>> updatedTasks;
+
+    private List<JobKey> jobKeys;
+
+    private Map<TriggerKey, String> crons;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        BenchmarkSupport.configureStore(store, THREAD_COUNT);
+        System.setProperty("org.quartz.dataSource.bench.maxConnections", String.valueOf(MAX_CONNECTIONS));
+        quartzManagerUtil = new QuartzManagerUtil();
+        parallelManager = new ParallelQuartzManager(quartzManagerUtil, new ForkJoinPool(parallelism), parallelism, MAX_CONNECTIONS);
+        tasks = BenchmarkSupport.createTasks(quartzManagerUtil, taskCount, "0 0/5 * * * ?");
+        updatedTasks = BenchmarkSupport.createTasks(quartzManagerUtil, taskCount, "0 0/10 * * * ?");
+        jobKeys = new ArrayList<>(taskCount);
+        crons = new LinkedHashMap<>(taskCount * 2);
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : tasks.entrySet()) {
+            jobKeys.add(entry.getKey().getKey());
+            crons.put(entry.getValue().iterator().next().getKey(), "0 0/15 * * * ?");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws Exception {
+        parallelManager.shutdown();
+        quartzManagerUtil.shutdownScheduler();
+    }
+
+    /**
+     * 清空后重新注册，使每轮测量从相同状态开始
+     */
+    @State(Scope.Thread)
+    public static class Populated {
+
+        @Setup(Level.Iteration)
+        public void populate(ParallelOperationBenchmark benchmark) throws Exception {
+            benchmark.quartzManagerUtil.clearScheduler();
+            benchmark.quartzManagerUtil.registerTasks(benchmark.tasks);
+        }
+    }
+
+    @Benchmark
+    public Object deleteJobs(Populated populated) throws Exception {
+        return parallelManager.deleteJobs(jobKeys);
+    }
+
+    @Benchmark
+    public Object updateTasks(Populated populated) throws Exception {
+        return parallelManager.updateTasks(updatedTasks);
+    }
+
+    @Benchmark
+    public Object rescheduleTasks(Populated populated) throws Exception {
+        return parallelManager.rescheduleTasks(crons);
+    }
+}
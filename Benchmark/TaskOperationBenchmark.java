@@ -0,0 +1,130 @@
+package com.utils.demo.Benchmark;
+
+import com.utils.demo.utils.QuartzManagerUtil;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务操作基准测试
+ *
+ * 每次测量处理taskCount个任务，分别在RAMJobStore与H2上的JobStoreTX上运行<br>
+ * 每轮测量前清空调度器，并按需要预先注册所有任务
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TaskOperationBenchmark {
+
+    @Param({BenchmarkSupport.RAM, BenchmarkSupport.JDBC})
+    public String store;
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private QuartzManagerUtil quartzManagerUtil;
+
+    private Map<JobDetail, Set<? extends Trigger>> tasks;
+
+    private Map<JobDetail, Set<? extends Trigger>> updatedTasks;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        BenchmarkSupport.configureStore(store, 10);
+        quartzManagerUtil = new QuartzManagerUtil();
+        tasks = BenchmarkSupport.createTasks(quartzManagerUtil, taskCount, "0 0/5 * * * ?");
+        updatedTasks = BenchmarkSupport.createTasks(quartzManagerUtil, taskCount, "0 0/10 * * * ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws Exception {
+        quartzManagerUtil.shutdownScheduler();
+    }
+
+    /**
+     * 清空后重新注册，使需要已有任务的测试从相同状态开始
+     */
+    @State(Scope.Thread)
+    public static class Populated {
+
+        @Setup(Level.Iteration)
+        public void populate(TaskOperationBenchmark benchmark) throws Exception {
+            benchmark.quartzManagerUtil.clearScheduler();
+            benchmark.quartzManagerUtil.registerTasks(benchmark.tasks);
+        }
+    }
+
+    /**
+     * 清空调度器，使注册测试从空调度器开始
+     */
+    @State(Scope.Thread)
+    public static class Empty {
+
+        @Setup(Level.Iteration)
+        public void clear(TaskOperationBenchmark benchmark) throws Exception {
+            benchmark.quartzManagerUtil.clearScheduler();
+        }
+    }
+
+    @Benchmark
+    public void registerTask(Empty empty) throws Exception {
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : tasks.entrySet()) {
+            quartzManagerUtil.registerTask(entry.getKey(), entry.getValue().iterator().next());
+        }
+    }
+
+    @Benchmark
+    public Object registerTasks(Empty empty) throws Exception {
+        return quartzManagerUtil.registerTasks(tasks);
+    }
+
+    @Benchmark
+    public void updateTask(Populated populated) throws Exception {
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : updatedTasks.entrySet()) {
+            quartzManagerUtil.updateTask(entry.getKey(), entry.getValue().iterator().next());
+        }
+    }
+
+    @Benchmark
+    public Object updateTasks(Populated populated) throws Exception {
+        return quartzManagerUtil.updateTasks(updatedTasks);
+    }
+
+    @Benchmark
+    public void deleteJob(Populated populated) throws Exception {
+        for (JobDetail jobDetail : tasks.keySet()) {
+            quartzManagerUtil.deleteJob(jobDetail.getKey());
+        }
+    }
+
+    @Benchmark
+    public Object getAllTriggers(Populated populated) throws Exception {
+        return quartzManagerUtil.getAllTriggers();
+    }
+
+    @Benchmark
+    public Object getTriggersByJobKey(Populated populated) throws Exception {
+        Object last = null;
+        for (JobDetail jobDetail : tasks.keySet()) {
+            JobKey jobKey = jobDetail.getKey();
+            last = quartzManagerUtil.getTriggersByJobKey(jobKey);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public void clearScheduler(Populated populated) throws Exception {
+        quartzManagerUtil.clearScheduler();
+    }
+}
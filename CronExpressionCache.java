@@ -0,0 +1,153 @@
+package com.utils.demo.utils;
+
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>cron表达式缓存
+ *
+ * <p>缓存已解析的CronExpression实例，相同的cron表达式只解析一次<br>
+ * 解析失败的表达式同样被缓存，再次使用时直接抛出异常<br>
+ * 缓存的CronExpression实例会被多个触发器共享，因此只能用于默认时区的触发器，不能对其调用setTimeZone
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class CronExpressionCache {
+
+    /**
+     * 缓存最大条目数
+     */
+    private final int maxSize;
+
+    /**
+     * cron表达式到解析结果的映射
+     */
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 命中次数
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * 未命中次数
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 创建cron表达式缓存
+     *
+     * @param maxSize 缓存最大条目数
+     */
+    public CronExpressionCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize必须大于0");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 获取cron表达式对应的CronExpression实例
+     *
+     * @param cron cron表达式
+     * @return 已解析的CronExpression实例
+     * @throws ParseException cron表达式无效
+     */
+    public CronExpression get(String cron) throws ParseException {
+        Entry entry = cache.get(cron);
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            entry = Entry.parse(cron);
+            this.evictIfFull();
+            Entry previous = cache.putIfAbsent(cron, entry);
+            if (previous != null) {
+                entry = previous;
+            }
+        }
+        if (entry.error != null) {
+            throw new ParseException(entry.error.getMessage(), entry.error.getErrorOffset());
+        }
+        return entry.expression;
+    }
+
+    /**
+     * 缓存已满时移除任意一个条目
+     */
+    private void evictIfFull() {
+        if (cache.size() < maxSize) {
+            return;
+        }
+        Iterator<String> iterator = cache.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 获取命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 获取当前缓存条目数
+     *
+     * @return 缓存条目数
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 清空缓存及计数
+     */
+    public void clear() {
+        cache.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * 缓存条目，保存解析结果或解析异常
+     */
+    private static final class Entry {
+
+        private final CronExpression expression;
+
+        private final ParseException error;
+
+        private Entry(CronExpression expression, ParseException error) {
+            this.expression = expression;
+            this.error = error;
+        }
+
+        private static Entry parse(String cron) {
+            try {
+                return new Entry(new CronExpression(cron), null);
+            } catch (ParseException e) {
+                return new Entry(null, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.utils.demo.utils;
+
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.listeners.SchedulerListenerSupport;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>cron触发时间错开
+ *
+ * <p>在jitterSeconds秒的窗口内为每个触发器选择一个偏移量，改写cron表达式的秒及分钟字段，使大量相同周期的触发器不在同一秒触发<br>
+ * 只改写单个数值(如"0")或起始值加步长(如"0/10")形式的字段，偏移后对60或步长取模，因此每个触发器的周期保持不变<br>
+ * 分钟字段不能改写时只在秒字段内错开<br>
+ * LEAST_LOADED方式在创建触发器时只选出候选偏移量并保存在触发器的JobDataMap中，触发器被注册(jobScheduled)时才计入分配，
+ * 创建后未注册的触发器不会使分配计数偏移；同一TriggerKey再次创建时沿用原偏移量<br>
+ * 候选偏移量在PENDING_TTL_MILLIS内计入选择，使批量创建的触发器不会选中同一偏移量，超时未注册时自动失效<br>
+ * 作为调度器监听注册后从调度事件中恢复及释放分配，重启后从JobStore中已有的触发器恢复
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class CronStagger extends SchedulerListenerSupport {
+
+    /**
+     * 错开方式
+     */
+    public enum Mode {
+
+        /**
+         * 按TriggerKey的哈希值选择偏移量，同一TriggerKey每次得到相同的偏移量
+         */
+        HASH,
+
+        /**
+         * 选择当前分配触发器最少的偏移量，相同时优先使用哈希值对应的偏移量
+         */
+        LEAST_LOADED
+    }
+
+    /**
+     * 窗口上限，偏移量只改写秒及分钟字段
+     */
+    public static final int MAX_JITTER_SECONDS = 3600;
+
+    /**
+     * 触发器JobDataMap中保存偏移量的键
+     */
+    public static final String JOB_DATA_KEY = "com.utils.demo.utils.CronStagger.offset";
+
+    /**
+     * 已创建但尚未注册的触发器的候选偏移量的有效时间
+     */
+    public static final long PENDING_TTL_MILLIS = 60000L;
+
+    private final Mode mode;
+
+    private final int jitterSeconds;
+
+    /**
+     * 每个偏移量已分配的触发器数量
+     */
+    private final AtomicIntegerArray load;
+
+    /**
+     * TriggerKey到已分配偏移量的映射
+     */
+    private final Map<TriggerKey, Integer> assignments = new ConcurrentHashMap<>();
+
+    /**
+     * JobKey到其已分配偏移量的触发器，deleteJobs只通知Job被删除
+     */
+    private final Map<JobKey, Set<TriggerKey>> triggersByJob = new ConcurrentHashMap<>();
+
+    /**
+     * 每个偏移量尚未注册的候选触发器数量
+     */
+    private final AtomicIntegerArray pendingLoad;
+
+    /**
+     * 已创建但尚未注册的TriggerKey到候选偏移量的映射
+     */
+    private final Map<TriggerKey, Pending> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 上次清理过期候选偏移量的时间(纳秒)
+     */
+    private volatile long sweptAt = System.nanoTime();
+
+    /**
+     * 创建cron触发时间错开
+     *
+     * @param mode          错开方式
+     * @param jitterSeconds 错开窗口(秒)，最大3600
+     */
+    public CronStagger(Mode mode, int jitterSeconds) {
+        if (jitterSeconds <= 0 || jitterSeconds > MAX_JITTER_SECONDS) {
+            throw new IllegalArgumentException("jitterSeconds必须在1到" + MAX_JITTER_SECONDS + "之间");
+        }
+        this.mode = mode;
+        this.jitterSeconds = jitterSeconds;
+        this.load = new AtomicIntegerArray(jitterSeconds);
+        this.pendingLoad = new AtomicIntegerArray(jitterSeconds);
+    }
+
+    /**
+     * 获取错开方式
+     *
+     * @return 错开方式
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * 获取错开窗口
+     *
+     * @return 窗口(秒)
+     */
+    public int getJitterSeconds() {
+        return jitterSeconds;
+    }
+
+    /**
+     * 改写cron表达式
+     *
+     * @param triggerKey 触发器TriggerKey
+     * @param cron       原cron表达式
+     * @return 错开后的cron表达式，秒字段不能改写时返回原表达式
+     */
+    public String apply(TriggerKey triggerKey, String cron) {
+        String[] fields = cron.trim().split("\\s+");
+        if (fields.length < 6 || !isShiftable(fields[0])) {
+            return cron;
+        }
+        //分钟字段不能改写时只在一分钟内错开
+        boolean shiftMinutes = isShiftable(fields[1]);
+        int window = shiftMinutes ? jitterSeconds : Math.min(jitterSeconds, 60);
+        int offset = this.chooseOffset(triggerKey, window);
+        fields[0] = shift(fields[0], offset % 60);
+        if (shiftMinutes) {
+            fields[1] = shift(fields[1], offset / 60);
+        }
+        return String.join(" ", fields);
+    }
+
+    /**
+     * 选择偏移量
+     *
+     * @param triggerKey 触发器TriggerKey
+     * @param window     可用的窗口(秒)
+     * @return 偏移量
+     */
+    private int chooseOffset(TriggerKey triggerKey, int window) {
+        int hashed = Math.floorMod(mix(triggerKey.hashCode()), window);
+        if (mode == Mode.HASH) {
+            return hashed;
+        }
+        //同一TriggerKey沿用已分配或尚未注册的候选偏移量
+        Integer assigned = this.getOffset(triggerKey);
+        if (assigned != null) {
+            return assigned % window;
+        }
+        this.sweepPending();
+        Pending candidate = pending.computeIfAbsent(triggerKey, key -> {
+            int offset = this.leastLoaded(hashed, window);
+            pendingLoad.incrementAndGet(offset);
+            return new Pending(offset);
+        });
+        return candidate.offset % window;
+    }
+
+    /**
+     * 选择已分配及候选触发器最少的偏移量，不计数
+     *
+     * @param hashed 哈希值对应的偏移量
+     * @param window 可用的窗口(秒)
+     * @return 偏移量
+     */
+    private int leastLoaded(int hashed, int window) {
+        int best = hashed;
+        int bestLoad = load.get(hashed) + pendingLoad.get(hashed);
+        for (int i = 1; i < window && bestLoad > 0; i++) {
+            int candidate = (hashed + i) % window;
+            int candidateLoad = load.get(candidate) + pendingLoad.get(candidate);
+            if (candidateLoad < bestLoad) {
+                best = candidate;
+                bestLoad = candidateLoad;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 移除超过有效时间仍未注册的候选偏移量
+     */
+    private void sweepPending() {
+        long now = System.nanoTime();
+        long ttl = TimeUnit.MILLISECONDS.toNanos(PENDING_TTL_MILLIS);
+        if (now - sweptAt < ttl / 2) {
+            return;
+        }
+        sweptAt = now;
+        Iterator<Map.Entry<TriggerKey, Pending>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<TriggerKey, Pending> entry = iterator.next();
+            if (now - entry.getValue().createdAt > ttl && pending.remove(entry.getKey(), entry.getValue())) {
+                pendingLoad.decrementAndGet(entry.getValue().offset);
+            }
+        }
+    }
+
+    /**
+     * 获取TriggerKey已分配或尚未注册的候选偏移量
+     *
+     * @param triggerKey 触发器TriggerKey
+     * @return 偏移量，HASH方式或未分配时返回null
+     */
+    public Integer getOffset(TriggerKey triggerKey) {
+        Integer offset = assignments.get(triggerKey);
+        if (offset != null) {
+            return offset;
+        }
+        Pending candidate = pending.get(triggerKey);
+        return candidate == null ? null : candidate.offset;
+    }
+
+    /**
+     * 获取偏移量已分配的触发器数量，不含尚未注册的触发器
+     *
+     * @param offset 偏移量
+     * @return 触发器数量
+     */
+    public int getLoad(int offset) {
+        return load.get(offset);
+    }
+
+    /**
+     * 记录已有触发器的偏移量
+     *
+     * @param triggerKey 触发器TriggerKey
+     * @param offset     偏移量
+     */
+    private void assign(TriggerKey triggerKey, int offset) {
+        Pending candidate = pending.remove(triggerKey);
+        if (candidate != null) {
+            pendingLoad.decrementAndGet(candidate.offset);
+        }
+        if (offset >= 0 && offset < jitterSeconds && assignments.putIfAbsent(triggerKey, offset) == null) {
+            load.incrementAndGet(offset);
+        }
+    }
+
+    /**
+     * 释放TriggerKey的偏移量
+     *
+     * @param triggerKey 触发器TriggerKey
+     */
+    private void release(TriggerKey triggerKey) {
+        Integer offset = assignments.remove(triggerKey);
+        if (offset != null) {
+            load.decrementAndGet(offset);
+        }
+    }
+
+    private void clear() {
+        assignments.clear();
+        triggersByJob.clear();
+        pending.clear();
+        for (int i = 0; i < load.length(); i++) {
+            load.set(i, 0);
+            pendingLoad.set(i, 0);
+        }
+    }
+
+    /**
+     * 触发器被注册时触发，从JobDataMap中恢复偏移量
+     *
+     * <p>替换触发器时调度器先通知删除再通知注册，偏移量因此保持不变
+     *
+     * @param trigger 被注册的触发器
+     */
+    @Override
+    public void jobScheduled(Trigger trigger) {
+        Object offset = trigger.getJobDataMap().get(JOB_DATA_KEY);
+        if (offset == null) {
+            return;
+        }
+        try {
+            this.assign(trigger.getKey(), Integer.parseInt(offset.toString()));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (trigger.getJobKey() != null) {
+            triggersByJob.computeIfAbsent(trigger.getJobKey(), jobKey -> ConcurrentHashMap.newKeySet()).add(trigger.getKey());
+        }
+    }
+
+    /**
+     * 触发器被删除时触发，调用Scheduler.clear()时triggerKey为null
+     *
+     * @param triggerKey 被删除的触发器的triggerKey
+     */
+    @Override
+    public void jobUnscheduled(TriggerKey triggerKey) {
+        if (triggerKey == null) {
+            this.clear();
+        } else {
+            this.release(triggerKey);
+        }
+    }
+
+    @Override
+    public void triggerFinalized(Trigger trigger) {
+        this.release(trigger.getKey());
+    }
+
+    @Override
+    public void jobDeleted(JobKey jobKey) {
+        Set<TriggerKey> triggerKeys = triggersByJob.remove(jobKey);
+        if (triggerKeys != null) {
+            for (TriggerKey triggerKey : triggerKeys) {
+                this.release(triggerKey);
+            }
+        }
+    }
+
+    @Override
+    public void schedulingDataCleared() {
+        this.clear();
+    }
+
+    /**
+     * 已创建但尚未注册的触发器的候选偏移量
+     */
+    private static final class Pending {
+
+        private final int offset;
+
+        private final long createdAt = System.nanoTime();
+
+        private Pending(int offset) {
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * 判断字段是否为单个数值或起始值加步长的形式
+     *
+     * @param field cron字段
+     * @return 是否可以改写
+     */
+    private static boolean isShiftable(String field) {
+        return field.matches("\\d+") || field.matches("(\\d+|\\*)/\\d+");
+    }
+
+    /**
+     * 将字段的起始值后移offset，对60或步长取模
+     *
+     * @param field  cron字段
+     * @param offset 偏移量
+     * @return 改写后的字段
+     */
+    private static String shift(String field, int offset) {
+        int slash = field.indexOf('/');
+        if (slash < 0) {
+            return String.valueOf((Integer.parseInt(field) + offset) % 60);
+        }
+        String start = field.substring(0, slash);
+        int step = Integer.parseInt(field.substring(slash + 1));
+        if (step <= 0) {
+            return field;
+        }
+        int base = "*".equals(start) ? 0 : Integer.parseInt(start);
+        return ((base + offset) % step) + field.substring(slash);
+    }
+
+    /**
+     * 打散哈希值，避免名称相近的TriggerKey得到相近的偏移量
+     *
+     * @param hash 原哈希值
+     * @return 打散后的哈希值
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,486 @@
+package com.utils.demo.utils;
+
+import org.quartz.*;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.listeners.SchedulerListenerSupport;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * <p>触发时间预测索引
+ *
+ * <p>以秒为单位的环形数组记录未来horizonSeconds秒内每秒的预计触发次数，可快速查询某段时间内的触发次数及每秒峰值<br>
+ * 每个触发器只计算到预测窗口末尾，随时间推进通过按下次触发时间排序的最小堆逐步补充，注册、更新、删除、暂停、恢复时增量更新<br>
+ * 不考虑触发器关联的Calendar排除的时间，结果为触发次数的上限
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class FireTimeForecast extends SchedulerListenerSupport {
+
+    /**
+     * 预测对应的调度器
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * 预测窗口长度(秒)
+     */
+    private final int horizonSeconds;
+
+    /**
+     * 每秒的预计触发次数，下标为秒数对窗口长度取模
+     */
+    private final int[] counts;
+
+    /**
+     * 窗口起始的秒数，早于该秒的数据已被清除
+     */
+    private long baseSecond;
+
+    /**
+     * 已计入窗口的触发时间上限(毫秒，不含)，只在查询需要时向后推进，避免为未查询的时间段计算触发时间
+     */
+    private long projectedLimit;
+
+    /**
+     * TriggerKey到预测条目的映射
+     */
+    private final Map<TriggerKey, Entry> entries = new HashMap<>();
+
+    /**
+     * JobKey到其触发器的索引，批量删除Job时调度器只通知jobDeleted
+     */
+    private final Map<JobKey, Set<TriggerKey>> triggersByJob = new HashMap<>();
+
+    /**
+     * 已暂停的触发器组，组内新注册的触发器同样处于暂停状态
+     */
+    private final Set<String> pausedGroups = new HashSet<>();
+
+    /**
+     * 按下一个尚未计入窗口的触发时间排序的条目
+     */
+    private final PriorityQueue<Entry> pending = new PriorityQueue<>((a, b) -> Long.compare(a.nextFire, b.nextFire));
+
+    /**
+     * 单个触发器的预测状态
+     */
+    private static final class Entry {
+
+        private final Trigger trigger;
+
+        /**
+         * 下一个尚未计入窗口的触发时间
+         */
+        private long nextFire;
+
+        /**
+         * 最后一个已计入窗口的触发时间
+         */
+        private long projectedUntil = Long.MIN_VALUE;
+
+        /**
+         * 已过期的首次触发被计入的秒数，没有时为-1
+         */
+        private long overdueSecond = -1;
+
+        private boolean paused;
+
+        private boolean removed;
+
+        Entry(Trigger trigger) {
+            this.trigger = trigger;
+        }
+    }
+
+    /**
+     * 创建触发时间预测索引
+     *
+     * @param scheduler      预测对应的调度器
+     * @param horizonSeconds 预测窗口长度(秒)
+     */
+    public FireTimeForecast(Scheduler scheduler, int horizonSeconds) {
+        if (horizonSeconds <= 0) {
+            throw new IllegalArgumentException("horizonSeconds必须大于0");
+        }
+        this.scheduler = scheduler;
+        this.horizonSeconds = horizonSeconds;
+        this.counts = new int[horizonSeconds];
+        this.baseSecond = System.currentTimeMillis() / 1000;
+        this.projectedLimit = baseSecond * 1000;
+    }
+
+    /**
+     * 从JobStore重新加载所有触发器
+     *
+     * @throws SchedulerException 调度器异常
+     */
+    public synchronized void refresh() throws SchedulerException {
+        this.reset();
+        //逐个触发器组读取，不一次性读取所有TriggerKey
+        for (String group : scheduler.getTriggerGroupNames()) {
+            for (TriggerKey triggerKey : scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(group))) {
+                Trigger trigger = scheduler.getTrigger(triggerKey);
+                if (trigger != null) {
+                    this.add(trigger, this.isPaused(triggerKey));
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取预测窗口长度
+     *
+     * @return 窗口长度(秒)
+     */
+    public int getHorizonSeconds() {
+        return horizonSeconds;
+    }
+
+    /**
+     * 获取一段时间内的预计触发次数，超出预测窗口的部分不计入
+     *
+     * @param fromMillis 起始时间(毫秒，含)
+     * @param toMillis   结束时间(毫秒，不含)
+     * @return 触发次数
+     */
+    public synchronized long countFires(long fromMillis, long toMillis) {
+        long end = this.endSecond(toMillis);
+        this.advance(end * 1000);
+        long total = 0;
+        for (long second = this.startSecond(fromMillis); second < end; second++) {
+            total += counts[this.slot(second)];
+        }
+        return total;
+    }
+
+    /**
+     * 获取一段时间内每秒预计触发次数的峰值，超出预测窗口的部分不计入
+     *
+     * @param fromMillis 起始时间(毫秒，含)
+     * @param toMillis   结束时间(毫秒，不含)
+     * @return 每秒触发次数峰值
+     */
+    public synchronized int peakFiresPerSecond(long fromMillis, long toMillis) {
+        long end = this.endSecond(toMillis);
+        this.advance(end * 1000);
+        int peak = 0;
+        for (long second = this.startSecond(fromMillis); second < end; second++) {
+            peak = Math.max(peak, counts[this.slot(second)]);
+        }
+        return peak;
+    }
+
+    /**
+     * 获取一段时间内每秒的预计触发次数，超出预测窗口的部分不计入
+     *
+     * @param fromMillis 起始时间(毫秒，含)
+     * @param toMillis   结束时间(毫秒，不含)
+     * @return 从起始时间所在秒开始每秒的触发次数
+     */
+    public synchronized int[] firesPerSecond(long fromMillis, long toMillis) {
+        long end = this.endSecond(toMillis);
+        this.advance(end * 1000);
+        long start = this.startSecond(fromMillis);
+        int[] result = new int[(int) Math.max(0, end - start)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts[this.slot(start + i)];
+        }
+        return result;
+    }
+
+    private long startSecond(long fromMillis) {
+        return Math.max(baseSecond, Math.floorDiv(fromMillis, 1000L));
+    }
+
+    private long endSecond(long toMillis) {
+        return Math.min(baseSecond + horizonSeconds, Math.floorDiv(toMillis - 1, 1000L) + 1);
+    }
+
+    private int slot(long second) {
+        return (int) Math.floorMod(second, (long) horizonSeconds);
+    }
+
+    /**
+     * 清除已过去的秒，并把早于limitMillis的触发时间计入
+     *
+     * @param limitMillis 需要计入的触发时间上限(毫秒，不含)
+     */
+    private void advance(long limitMillis) {
+        long nowSecond = System.currentTimeMillis() / 1000;
+        if (nowSecond > baseSecond) {
+            long stop = Math.min(nowSecond, baseSecond + horizonSeconds);
+            for (long second = baseSecond; second < stop; second++) {
+                counts[this.slot(second)] = 0;
+            }
+            baseSecond = nowSecond;
+        }
+        long base = baseSecond * 1000;
+        long limit = Math.min((baseSecond + horizonSeconds) * 1000, Math.max(projectedLimit, limitMillis));
+        projectedLimit = Math.max(limit, base);
+        while (!pending.isEmpty() && pending.peek().nextFire < limit) {
+            Entry entry = pending.poll();
+            if (entry.removed) {
+                continue;
+            }
+            long fireTime = entry.nextFire;
+            if (fireTime >= base) {
+                counts[this.slot(fireTime / 1000)]++;
+            }
+            entry.projectedUntil = fireTime;
+            Date next = entry.trigger.getFireTimeAfter(new Date(fireTime));
+            if (next != null) {
+                entry.nextFire = next.getTime();
+                pending.add(entry);
+            }
+        }
+    }
+
+    /**
+     * 加入触发器，已存在同一TriggerKey时先移除
+     *
+     * @param trigger 触发器
+     * @param paused  是否已暂停
+     */
+    private void add(Trigger trigger, boolean paused) {
+        this.remove(trigger.getKey());
+        Entry entry = new Entry(trigger);
+        entries.put(trigger.getKey(), entry);
+        triggersByJob.computeIfAbsent(trigger.getJobKey(), jobKey -> new HashSet<>()).add(trigger.getKey());
+        entry.paused = paused;
+        if (!paused) {
+            this.project(entry, trigger.getNextFireTime());
+        }
+    }
+
+    /**
+     * 从指定的首次触发时间开始预测
+     *
+     * @param entry     预测条目
+     * @param firstFire 首次触发时间，为null时不会再触发
+     */
+    private void project(Entry entry, Date firstFire) {
+        if (firstFire == null) {
+            return;
+        }
+        this.advance(projectedLimit);
+        long fireTime = firstFire.getTime();
+        if (fireTime < baseSecond * 1000) {
+            //已过期的触发会在调度器空闲时立即执行，计入当前秒
+            entry.overdueSecond = baseSecond;
+            counts[this.slot(baseSecond)]++;
+            entry.projectedUntil = fireTime;
+            Date next = entry.trigger.getFireTimeAfter(firstFire);
+            if (next == null) {
+                return;
+            }
+            fireTime = next.getTime();
+        }
+        entry.nextFire = fireTime;
+        pending.add(entry);
+        this.advance(projectedLimit);
+    }
+
+    /**
+     * 撤销条目已计入窗口的触发次数
+     *
+     * @param entry 预测条目
+     */
+    private void unproject(Entry entry) {
+        this.advance(projectedLimit);
+        entry.removed = true;
+        if (entry.overdueSecond >= baseSecond) {
+            counts[this.slot(entry.overdueSecond)]--;
+        }
+        entry.overdueSecond = -1;
+        if (entry.projectedUntil >= baseSecond * 1000) {
+            Date fireTime = entry.trigger.getFireTimeAfter(new Date(baseSecond * 1000 - 1));
+            while (fireTime != null && fireTime.getTime() <= entry.projectedUntil) {
+                counts[this.slot(fireTime.getTime() / 1000)]--;
+                fireTime = entry.trigger.getFireTimeAfter(fireTime);
+            }
+        }
+    }
+
+    private void remove(TriggerKey triggerKey) {
+        Entry entry = entries.remove(triggerKey);
+        if (entry == null) {
+            return;
+        }
+        Set<TriggerKey> triggerKeys = triggersByJob.get(entry.trigger.getJobKey());
+        if (triggerKeys != null) {
+            triggerKeys.remove(triggerKey);
+            if (triggerKeys.isEmpty()) {
+                triggersByJob.remove(entry.trigger.getJobKey());
+            }
+        }
+        if (!entry.paused) {
+            this.unproject(entry);
+        }
+    }
+
+    private void reset() {
+        entries.clear();
+        triggersByJob.clear();
+        pending.clear();
+        pausedGroups.clear();
+        Arrays.fill(counts, 0);
+        baseSecond = System.currentTimeMillis() / 1000;
+        projectedLimit = baseSecond * 1000;
+    }
+
+    /**
+     * 查询触发器是否处于暂停状态
+     *
+     * @param triggerKey 触发器TriggerKey
+     * @return 是否暂停
+     */
+    private boolean isPaused(TriggerKey triggerKey) {
+        try {
+            Trigger.TriggerState state = scheduler.getTriggerState(triggerKey);
+            return state == Trigger.TriggerState.PAUSED;
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 按JobStore中的状态更新满足条件的触发器的暂停状态
+     *
+     * @param filter 需要更新的条件
+     */
+    private void updatePaused(Predicate<Trigger> filter) {
+        for (Entry entry : entries.values().toArray(new Entry[0])) {
+            if (!filter.test(entry.trigger)) {
+                continue;
+            }
+            boolean paused = this.isPaused(entry.trigger.getKey());
+            if (paused && !entry.paused) {
+                this.unproject(entry);
+                entry.paused = true;
+            } else if (!paused && entry.paused) {
+                Entry resumed = new Entry(entry.trigger);
+                entries.put(entry.trigger.getKey(), resumed);
+                this.project(resumed, entry.trigger.getFireTimeAfter(new Date(System.currentTimeMillis() - 1)));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void jobScheduled(Trigger trigger) {
+        this.add(trigger, pausedGroups.contains(trigger.getKey().getGroup()));
+    }
+
+    /**
+     * 触发器被删除时触发，调用Scheduler.clear()时triggerKey为null
+     *
+     * @param triggerKey 被删除的触发器的triggerKey
+     */
+    @Override
+    public synchronized void jobUnscheduled(TriggerKey triggerKey) {
+        if (triggerKey == null) {
+            this.reset();
+        } else {
+            this.remove(triggerKey);
+        }
+    }
+
+    @Override
+    public synchronized void jobDeleted(JobKey jobKey) {
+        Set<TriggerKey> triggerKeys = triggersByJob.get(jobKey);
+        if (triggerKeys != null) {
+            for (TriggerKey triggerKey : triggerKeys.toArray(new TriggerKey[0])) {
+                this.remove(triggerKey);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void triggerFinalized(Trigger trigger) {
+        this.remove(trigger.getKey());
+    }
+
+    @Override
+    public synchronized void triggerPaused(TriggerKey triggerKey) {
+        this.updatePaused(trigger -> trigger.getKey().equals(triggerKey));
+    }
+
+    /**
+     * 触发器组被暂停时触发，暂停所有触发器时group为null
+     *
+     * @param triggerGroup 触发器组名
+     */
+    @Override
+    public synchronized void triggersPaused(String triggerGroup) {
+        if (triggerGroup == null) {
+            for (TriggerKey triggerKey : entries.keySet()) {
+                pausedGroups.add(triggerKey.getGroup());
+            }
+        } else {
+            pausedGroups.add(triggerGroup);
+        }
+        this.updatePaused(trigger -> triggerGroup == null || trigger.getKey().getGroup().equals(triggerGroup));
+    }
+
+    /**
+     * 触发器被恢复时触发，恢复所有触发器时triggerKey为null
+     *
+     * @param triggerKey 被恢复的触发器的triggerKey
+     */
+    @Override
+    public synchronized void triggerResumed(TriggerKey triggerKey) {
+        if (triggerKey == null) {
+            pausedGroups.clear();
+        }
+        this.updatePaused(trigger -> triggerKey == null || trigger.getKey().equals(triggerKey));
+    }
+
+    /**
+     * 触发器组被恢复时触发
+     *
+     * @param triggerGroup 触发器组名
+     */
+    @Override
+    public synchronized void triggersResumed(String triggerGroup) {
+        if (triggerGroup == null) {
+            pausedGroups.clear();
+        } else {
+            pausedGroups.remove(triggerGroup);
+        }
+        this.updatePaused(trigger -> triggerGroup == null || trigger.getKey().getGroup().equals(triggerGroup));
+    }
+
+    @Override
+    public synchronized void jobPaused(JobKey jobKey) {
+        this.updatePaused(trigger -> trigger.getJobKey().equals(jobKey));
+    }
+
+    @Override
+    public synchronized void jobsPaused(String jobGroup) {
+        this.updatePaused(trigger -> trigger.getJobKey().getGroup().equals(jobGroup));
+    }
+
+    @Override
+    public synchronized void jobResumed(JobKey jobKey) {
+        this.updatePaused(trigger -> trigger.getJobKey().equals(jobKey));
+    }
+
+    @Override
+    public synchronized void jobsResumed(String jobGroup) {
+        this.updatePaused(trigger -> trigger.getJobKey().getGroup().equals(jobGroup));
+    }
+
+    @Override
+    public synchronized void schedulingDataCleared() {
+        this.reset();
+    }
+}
@@ -0,0 +1,111 @@
+package com.utils.demo.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>按组并行批量操作结果报告
+ *
+ * <p>包含合并后的批量操作结果报告及每个组、整体的耗时<br>
+ * 某组失败时其他组不再开始，报告中包含已完成的组的结果、失败的组及其异常、未开始的组
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class GroupTaskReport {
+
+    private final TaskReport report;
+
+    private final Map<String, Long> groupMillis;
+
+    private final Map<String, Exception> failedGroups;
+
+    private final List<String> skippedGroups;
+
+    private final long elapsedMillis;
+
+    private final int parallelism;
+
+    GroupTaskReport(TaskReport report, Map<String, Long> groupMillis, Map<String, Exception> failedGroups,
+                    List<String> skippedGroups, long elapsedMillis, int parallelism) {
+        this.report = report;
+        this.groupMillis = Collections.unmodifiableMap(new LinkedHashMap<>(groupMillis));
+        this.failedGroups = Collections.unmodifiableMap(new LinkedHashMap<>(failedGroups));
+        this.skippedGroups = Collections.unmodifiableList(new ArrayList<>(skippedGroups));
+        this.elapsedMillis = elapsedMillis;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * 获取所有组合并后的批量操作结果报告
+     *
+     * @return 批量操作结果报告
+     */
+    public TaskReport getReport() {
+        return report;
+    }
+
+    /**
+     * 获取每个组的耗时
+     *
+     * @return 组名与耗时(毫秒)的映射
+     */
+    public Map<String, Long> getGroupMillis() {
+        return groupMillis;
+    }
+
+    /**
+     * 获取执行失败的组
+     *
+     * @return 组名与异常的映射
+     */
+    public Map<String, Exception> getFailedGroups() {
+        return failedGroups;
+    }
+
+    /**
+     * 获取因其他组失败而未开始的组
+     *
+     * @return 组名
+     */
+    public List<String> getSkippedGroups() {
+        return skippedGroups;
+    }
+
+    /**
+     * 是否所有组都执行成功
+     *
+     * @return 没有失败及未开始的组时返回true
+     */
+    public boolean isSuccess() {
+        return failedGroups.isEmpty() && skippedGroups.isEmpty();
+    }
+
+    /**
+     * 获取整体耗时
+     *
+     * @return 耗时(毫秒)
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * 获取实际使用的并行度
+     *
+     * @return 同时执行的组数上限
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupTaskReport{" + report + ", groups=" + groupMillis.size()
+                + ", failedGroups=" + failedGroups.keySet() + ", skippedGroups=" + skippedGroups
+                + ", elapsedMillis=" + elapsedMillis + ", parallelism=" + parallelism + "}";
+    }
+}
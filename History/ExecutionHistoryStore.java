@@ -0,0 +1,491 @@
+package com.utils.demo.History;
+
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>执行历史存储
+ *
+ * <p>每次触发的执行记录以32字节的定长格式追加写入内存映射的分段文件，写入不经过数据库<br>
+ * JobKey、TriggerKey及异常类名保存在追加写入的字典文件中，记录中只保存其编号，每个字典条目一次写入，打开时截掉崩溃留下的不完整条目<br>
+ * 当前分段写满后创建新的分段，并删除超过保留时间或超出分段数上限的旧分段<br>
+ * 每个分段记录开始时间的范围，按时间窗口查询时跳过不相交的分段
+ *
+ * <p>记录格式：JobKey编号(int)、TriggerKey编号(int)、开始时间(long)、耗时(int)、异常类名编号(int)、执行结果(byte)、保留(7字节)
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class ExecutionHistoryStore implements AutoCloseable {
+
+    /**
+     * 单条记录的字节数
+     */
+    public static final int RECORD_SIZE = 32;
+
+    private static final String DICTIONARY_FILE = "keys.dict";
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".hist";
+
+    private static final byte KIND_JOB = 0;
+
+    private static final byte KIND_TRIGGER = 1;
+
+    private static final byte KIND_EXCEPTION = 2;
+
+    /**
+     * 已安装的执行历史存储，供HistoryJobListener及HistoryTriggerListener使用
+     */
+    private static volatile ExecutionHistoryStore installed;
+
+    private final File directory;
+
+    private final int recordsPerSegment;
+
+    private final int maxSegments;
+
+    private final long retentionMillis;
+
+    /**
+     * 字典内容到编号的映射，编号从1开始，0表示无
+     */
+    private final Map<Object, Integer> ids = new HashMap<>();
+
+    /**
+     * 编号到字典内容的映射，下标为编号减1
+     */
+    private final List<Object> values = new ArrayList<>();
+
+    private final DataOutputStream dictionaryOut;
+
+    /**
+     * 保留中的分段，按序号升序
+     */
+    private final List<Segment> segments = new ArrayList<>();
+
+    private boolean closed;
+
+    /**
+     * 单个分段文件
+     */
+    private static final class Segment {
+
+        private final long sequence;
+
+        private final File file;
+
+        private final MappedByteBuffer buffer;
+
+        /**
+         * 已写入的记录数，写入记录内容后才增加，读取时以此为界
+         */
+        private volatile int count;
+
+        private volatile long minStart = Long.MAX_VALUE;
+
+        private volatile long maxEnd = Long.MIN_VALUE;
+
+        Segment(long sequence, File file, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * 记录已读取字节数的输入流，用于确定最后一个完整字典条目的结束位置
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * 打开或创建执行历史存储
+     *
+     * @param directory         存储目录
+     * @param recordsPerSegment 每个分段的记录数
+     * @param maxSegments       保留的分段数上限
+     * @param retentionMillis   保留时间(毫秒)，小于等于0时只按分段数删除
+     * @throws IOException 读写文件失败
+     */
+    public ExecutionHistoryStore(File directory, int recordsPerSegment, int maxSegments, long retentionMillis) throws IOException {
+        if (recordsPerSegment <= 0 || maxSegments <= 0) {
+            throw new IllegalArgumentException("recordsPerSegment及maxSegments必须大于0");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建目录" + directory);
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.maxSegments = maxSegments;
+        this.retentionMillis = retentionMillis;
+        File dictionary = new File(directory, DICTIONARY_FILE);
+        this.loadDictionary(dictionary);
+        this.dictionaryOut = new DataOutputStream(new FileOutputStream(dictionary, true));
+        this.loadSegments();
+    }
+
+    /**
+     * 使用默认配置打开或创建执行历史存储，每个分段1048576条记录(32MB)，最多保留16个分段及7天
+     *
+     * @param directory 存储目录
+     * @return 执行历史存储
+     * @throws IOException 读写文件失败
+     */
+    public static ExecutionHistoryStore open(String directory) throws IOException {
+        return new ExecutionHistoryStore(new File(directory), 1 << 20, 16, 7L * 24 * 60 * 60 * 1000);
+    }
+
+    /**
+     * 安装执行历史存储，HistoryJobListener及HistoryTriggerListener将记录写入此存储
+     *
+     * @param store 执行历史存储，为null时停止记录
+     */
+    public static void install(ExecutionHistoryStore store) {
+        installed = store;
+    }
+
+    /**
+     * 获取已安装的执行历史存储
+     *
+     * @return 执行历史存储，未安装时为null
+     */
+    public static ExecutionHistoryStore current() {
+        return installed;
+    }
+
+    /**
+     * 读取字典文件，进程在写入字典条目时崩溃留下的不完整的末尾条目被截掉
+     *
+     * @param dictionary 字典文件
+     * @throws IOException 读写文件失败
+     */
+    private void loadDictionary(File dictionary) throws IOException {
+        if (!dictionary.exists()) {
+            return;
+        }
+        long length = dictionary.length();
+        long complete = 0;
+        try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(dictionary)));
+             DataInputStream in = new DataInputStream(counter)) {
+            while (complete < length) {
+                byte kind;
+                String first;
+                String second;
+                try {
+                    kind = in.readByte();
+                    first = in.readUTF();
+                    second = in.readUTF();
+                } catch (EOFException e) {
+                    break;
+                }
+                complete = counter.count;
+                Object value = kind == KIND_JOB ? new JobKey(second, first)
+                        : kind == KIND_TRIGGER ? new TriggerKey(second, first) : first;
+                values.add(value);
+                ids.put(value, values.size());
+            }
+        }
+        if (complete < length) {
+            try (RandomAccessFile raf = new RandomAccessFile(dictionary, "rw")) {
+                raf.setLength(complete);
+            }
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            String name = file.getName();
+            long sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = this.map(sequence, file, (int) (file.length() / RECORD_SIZE));
+            int capacity = segment.buffer.capacity() / RECORD_SIZE;
+            int count = 0;
+            while (count < capacity && segment.buffer.getInt(count * RECORD_SIZE) != 0) {
+                this.updateRange(segment, count);
+                count++;
+            }
+            segment.count = count;
+            segments.add(segment);
+        }
+    }
+
+    private Segment map(long sequence, File file, int records) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, (long) records * RECORD_SIZE);
+            return new Segment(sequence, file, buffer);
+        }
+    }
+
+    private void updateRange(Segment segment, int index) {
+        int offset = index * RECORD_SIZE;
+        long start = segment.buffer.getLong(offset + 8);
+        long end = start + segment.buffer.getInt(offset + 16);
+        segment.minStart = Math.min(segment.minStart, start);
+        segment.maxEnd = Math.max(segment.maxEnd, end);
+    }
+
+    /**
+     * 获取或分配字典编号
+     *
+     * @param kind  类型
+     * @param value 字典内容
+     * @return 编号
+     * @throws IOException 写入字典文件失败
+     */
+    private int idOf(byte kind, Object value) throws IOException {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (kind == KIND_JOB) {
+            JobKey jobKey = (JobKey) value;
+            this.writeDictionary(kind, jobKey.getGroup(), jobKey.getName());
+        } else if (kind == KIND_TRIGGER) {
+            TriggerKey triggerKey = (TriggerKey) value;
+            this.writeDictionary(kind, triggerKey.getGroup(), triggerKey.getName());
+        } else {
+            this.writeDictionary(kind, (String) value, "");
+        }
+        values.add(value);
+        ids.put(value, values.size());
+        return values.size();
+    }
+
+    /**
+     * 将字典条目编码后一次写入字典文件
+     *
+     * @param kind   类型
+     * @param first  组名或异常类名
+     * @param second 名称
+     * @throws IOException 写入字典文件失败
+     */
+    private void writeDictionary(byte kind, String first, String second) throws IOException {
+        ByteArrayOutputStream entry = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(entry);
+        out.writeByte(kind);
+        out.writeUTF(first);
+        out.writeUTF(second);
+        entry.writeTo(dictionaryOut);
+        dictionaryOut.flush();
+    }
+
+    /**
+     * 追加一条执行记录
+     *
+     * @param record 执行记录
+     * @throws IOException 读写文件失败
+     */
+    public synchronized void append(ExecutionRecord record) throws IOException {
+        if (closed) {
+            throw new IOException("执行历史存储已关闭");
+        }
+        int jobId = this.idOf(KIND_JOB, record.getJobKey());
+        int triggerId = this.idOf(KIND_TRIGGER, record.getTriggerKey());
+        int exceptionId = this.idOf(KIND_EXCEPTION, record.getExceptionClass());
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.count >= segment.buffer.capacity() / RECORD_SIZE) {
+            segment = this.rollover(segment == null ? 0 : segment.sequence + 1);
+        }
+        int index = segment.count;
+        int offset = index * RECORD_SIZE;
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.putInt(offset + 4, triggerId);
+        buffer.putLong(offset + 8, record.getStartTime());
+        buffer.putInt(offset + 16, (int) Math.min(Integer.MAX_VALUE, Math.max(0, record.getDuration())));
+        buffer.putInt(offset + 20, exceptionId);
+        buffer.put(offset + 24, (byte) record.getOutcome().ordinal());
+        //JobKey编号最后写入，非0表示记录完整
+        buffer.putInt(offset, jobId);
+        this.updateRange(segment, index);
+        segment.count = index + 1;
+    }
+
+    /**
+     * 创建新分段并删除过期的分段
+     *
+     * @param sequence 新分段序号
+     * @return 新分段
+     * @throws IOException 创建文件失败
+     */
+    private Segment rollover(long sequence) throws IOException {
+        File file = new File(directory, String.format("%s%019d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        Segment segment = this.map(sequence, file, recordsPerSegment);
+        segments.add(segment);
+        long expireBefore = retentionMillis > 0 ? System.currentTimeMillis() - retentionMillis : Long.MIN_VALUE;
+        while (segments.size() > 1 && (segments.size() > maxSegments || segments.get(0).maxEnd < expireBefore)) {
+            Segment expired = segments.remove(0);
+            expired.buffer.force();
+            if (!expired.file.delete()) {
+                expired.file.deleteOnExit();
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * 按JobKey及开始时间查询执行记录
+     *
+     * @param jobKey     任务JobKey，为null时查询所有任务
+     * @param fromMillis 开始时间下限(毫秒，含)
+     * @param toMillis   开始时间上限(毫秒，不含)
+     * @param limit      最多返回的记录数，超出时返回最近的记录
+     * @return 按开始时间写入顺序排列的执行记录
+     */
+    public List<ExecutionRecord> query(JobKey jobKey, long fromMillis, long toMillis, int limit) {
+        int jobId;
+        List<Segment> snapshot;
+        List<Object> dictionary;
+        synchronized (this) {
+            if (jobKey != null) {
+                Integer id = ids.get(jobKey);
+                if (id == null) {
+                    return Collections.emptyList();
+                }
+                jobId = id;
+            } else {
+                jobId = 0;
+            }
+            snapshot = new ArrayList<>(segments);
+            dictionary = new ArrayList<>(values);
+        }
+        List<ExecutionRecord> result = new ArrayList<>();
+        for (int s = snapshot.size() - 1; s >= 0 && result.size() < limit; s--) {
+            Segment segment = snapshot.get(s);
+            int count = segment.count;
+            if (count == 0 || segment.minStart >= toMillis || segment.maxEnd < fromMillis) {
+                continue;
+            }
+            MappedByteBuffer buffer = segment.buffer;
+            for (int i = count - 1; i >= 0 && result.size() < limit; i--) {
+                int offset = i * RECORD_SIZE;
+                int id = buffer.getInt(offset);
+                if (jobId != 0 && id != jobId) {
+                    continue;
+                }
+                long start = buffer.getLong(offset + 8);
+                if (start < fromMillis || start >= toMillis) {
+                    continue;
+                }
+                result.add(this.decode(buffer, offset, dictionary));
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private ExecutionRecord decode(MappedByteBuffer buffer, int offset, List<Object> dictionary) {
+        int triggerId = buffer.getInt(offset + 4);
+        int exceptionId = buffer.getInt(offset + 20);
+        long start = buffer.getLong(offset + 8);
+        return new ExecutionRecord(
+                (JobKey) dictionary.get(buffer.getInt(offset) - 1),
+                triggerId == 0 ? null : (TriggerKey) dictionary.get(triggerId - 1),
+                start,
+                start + buffer.getInt(offset + 16),
+                ExecutionRecord.Outcome.values()[buffer.get(offset + 24)],
+                exceptionId == 0 ? null : (String) dictionary.get(exceptionId - 1));
+    }
+
+    /**
+     * 获取保留中的记录总数
+     *
+     * @return 记录数
+     */
+    public synchronized long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    /**
+     * 将当前分段写回磁盘
+     */
+    public synchronized void flush() {
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).buffer.force();
+        }
+    }
+
+    /**
+     * 写回并关闭存储，已安装时同时卸载
+     *
+     * @throws IOException 关闭字典文件失败
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (installed == this) {
+            installed = null;
+        }
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+        dictionaryOut.close();
+    }
+}
@@ -0,0 +1,129 @@
+package com.utils.demo.History;
+
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+/**
+ * 单次触发的执行记录
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class ExecutionRecord {
+
+    /**
+     * 执行结果
+     */
+    public enum Outcome {
+
+        /**
+         * 执行成功
+         */
+        SUCCESS,
+
+        /**
+         * 执行时抛出异常
+         */
+        FAILED,
+
+        /**
+         * 被触发器监听否决
+         */
+        VETOED,
+
+        /**
+         * 触发器misfire
+         */
+        MISFIRED
+    }
+
+    private final JobKey jobKey;
+
+    private final TriggerKey triggerKey;
+
+    private final long startTime;
+
+    private final long endTime;
+
+    private final Outcome outcome;
+
+    private final String exceptionClass;
+
+    /**
+     * 创建执行记录
+     *
+     * @param jobKey         任务JobKey
+     * @param triggerKey     触发器TriggerKey，未知时为null
+     * @param startTime      开始时间(毫秒)
+     * @param endTime        结束时间(毫秒)
+     * @param outcome        执行结果
+     * @param exceptionClass 异常类名，没有异常时为null
+     */
+    public ExecutionRecord(JobKey jobKey, TriggerKey triggerKey, long startTime, long endTime,
+                           Outcome outcome, String exceptionClass) {
+        this.jobKey = jobKey;
+        this.triggerKey = triggerKey;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.outcome = outcome;
+        this.exceptionClass = exceptionClass;
+    }
+
+    /**
+     * @return 任务JobKey
+     */
+    public JobKey getJobKey() {
+        return jobKey;
+    }
+
+    /**
+     * @return 触发器TriggerKey，未知时为null
+     */
+    public TriggerKey getTriggerKey() {
+        return triggerKey;
+    }
+
+    /**
+     * @return 开始时间(毫秒)
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return 结束时间(毫秒)
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * 获取执行耗时
+     *
+     * @return 耗时(毫秒)
+     */
+    public long getDuration() {
+        return endTime - startTime;
+    }
+
+    /**
+     * @return 执行结果
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return 异常类名，没有异常时为null
+     */
+    public String getExceptionClass() {
+        return exceptionClass;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionRecord{jobKey=" + jobKey + ", triggerKey=" + triggerKey
+                + ", startTime=" + startTime + ", duration=" + this.getDuration()
+                + ", outcome=" + outcome + (exceptionClass == null ? "" : ", exception=" + exceptionClass) + "}";
+    }
+}
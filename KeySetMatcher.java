@@ -0,0 +1,92 @@
+package com.utils.demo.utils;
+
+import org.quartz.Matcher;
+import org.quartz.utils.Key;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>基于哈希集合的Key匹配器
+ *
+ * <p>Key在集合中或Key所在的组在组集合中时匹配，匹配耗时与集合大小无关<br>
+ * 注册到ListenerManager后仍可增删Key，不需要重新注册监听器
+ *
+ * @param <T> Key类型
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class KeySetMatcher<T extends Key<?>> implements Matcher<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 需要匹配的Key，Matcher可序列化，因此使用可序列化的集合类型
+     */
+    private final ConcurrentHashMap.KeySetView<T, Boolean> keys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 需要匹配的组
+     */
+    private final ConcurrentHashMap.KeySetView<String, Boolean> groups = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean isMatch(T key) {
+        return keys.contains(key) || (!groups.isEmpty() && groups.contains(key.getGroup()));
+    }
+
+    /**
+     * 添加需要匹配的Key
+     *
+     * @param added 需要匹配的Key
+     */
+    public void addKeys(Collection<? extends T> added) {
+        keys.addAll(added);
+    }
+
+    /**
+     * 移除需要匹配的Key
+     *
+     * @param removed 不再匹配的Key
+     */
+    public void removeKeys(Collection<? extends T> removed) {
+        keys.removeAll(removed);
+    }
+
+    /**
+     * 添加需要匹配的组
+     *
+     * @param added 需要匹配的组名
+     */
+    public void addGroups(Collection<String> added) {
+        groups.addAll(added);
+    }
+
+    /**
+     * 移除需要匹配的组
+     *
+     * @param removed 不再匹配的组名
+     */
+    public void removeGroups(Collection<String> removed) {
+        groups.removeAll(removed);
+    }
+
+    /**
+     * 是否没有任何需要匹配的Key或组
+     *
+     * @return 为空时返回true
+     */
+    public boolean isEmpty() {
+        return keys.isEmpty() && groups.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+}
@@ -0,0 +1,285 @@
+package com.utils.demo.Listener;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步批量日志输出
+ *
+ * 监听器线程只将事件时间戳、Key及事件类型写入预分配的环形缓冲区，不创建Date对象也不进行IO<br>
+ * 由单独的后台线程取出事件、格式化并批量写入文件或输出流<br>
+ * 缓冲区满时按溢出策略丢弃事件或阻塞等待<br>
+ * 调用install()后StdJobListener与StdTriggerListener使用此方式输出日志
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class AsyncLogWriter implements Closeable {
+
+    /**
+     * 日志事件类型
+     */
+    public enum Event {
+        JOB_TO_BE_EXECUTED("即将执行"),
+        JOB_EXECUTION_VETOED("执行失败"),
+        JOB_WAS_EXECUTED("执行完毕"),
+        TRIGGER_FIRED(" 被触发了"),
+        TRIGGER_VETO_CHECKED("当前Job的相关资源准备是否出现问题: false"),
+        TRIGGER_MISFIRED("错过了触发时间"),
+        TRIGGER_COMPLETE("触发执行完成");
+
+        private final String message;
+
+        Event(String message) {
+            this.message = message;
+        }
+    }
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃新事件并计数
+         */
+        DROP,
+        /**
+         * 阻塞监听器线程直到有空位
+         */
+        BLOCK
+    }
+
+    /**
+     * 每次批量写入的最大事件数
+     */
+    private static final int MAX_BATCH = 256;
+
+    /**
+     * 关闭时等待后台线程写出剩余事件的最长时间
+     */
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000L;
+
+    /**
+     * 当前安装的日志输出，为null时监听器直接输出到控制台
+     */
+    private static volatile AsyncLogWriter installed;
+
+    private final int mask;
+
+    private final long[] timestamps;
+
+    private final Object[] keys;
+
+    private final Event[] events;
+
+    /**
+     * 每个槽位已发布的序号，消费者据此判断槽位内容是否写入完成
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * 下一个可申请的序号
+     */
+    private final AtomicLong producerSequence = new AtomicLong();
+
+    /**
+     * 下一个待消费的序号
+     */
+    private volatile long consumerSequence;
+
+    private final OverflowPolicy policy;
+
+    private final Writer writer;
+
+    private final Thread drainer;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder writeErrors = new LongAdder();
+
+    private volatile boolean running = true;
+
+    /**
+     * 创建异步日志输出
+     *
+     * @param out      输出流
+     * @param capacity 缓冲区容量，向上取整为2的幂
+     * @param policy   缓冲区满时的处理策略
+     */
+    public AsyncLogWriter(OutputStream out, int capacity, OverflowPolicy policy) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.timestamps = new long[size];
+        this.keys = new Object[size];
+        this.events = new Event[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1L);
+        }
+        this.policy = policy;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        this.drainer = new Thread(this::drain, "AsyncLogWriter");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * 创建输出到文件的异步日志输出，追加写入
+     *
+     * @param path     文件路径
+     * @param capacity 缓冲区容量
+     * @param policy   缓冲区满时的处理策略
+     * @return 异步日志输出
+     * @throws IOException 文件打开失败
+     */
+    public static AsyncLogWriter toFile(String path, int capacity, OverflowPolicy policy) throws IOException {
+        return new AsyncLogWriter(new FileOutputStream(path, true), capacity, policy);
+    }
+
+    /**
+     * 设置StdJobListener与StdTriggerListener使用的日志输出，传入null时恢复为直接输出到控制台
+     *
+     * @param logWriter 异步日志输出
+     */
+    public static void install(AsyncLogWriter logWriter) {
+        installed = logWriter;
+    }
+
+    /**
+     * 获取当前安装的日志输出
+     *
+     * @return 异步日志输出，未安装时返回null
+     */
+    public static AsyncLogWriter current() {
+        return installed;
+    }
+
+    /**
+     * 记录一个事件
+     *
+     * @param key   事件对应的JobKey或TriggerKey
+     * @param event 事件类型
+     * @return 事件被丢弃时返回false
+     */
+    public boolean log(Object key, Event event) {
+        long now = System.currentTimeMillis();
+        long sequence;
+        while (true) {
+            sequence = producerSequence.get();
+            if (sequence - consumerSequence > mask) {
+                if (policy == OverflowPolicy.DROP || !running) {
+                    dropped.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(10_000L);
+                continue;
+            }
+            if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        int index = (int) (sequence & mask);
+        timestamps[index] = now;
+        keys[index] = key;
+        events[index] = event;
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * 获取被丢弃的事件数
+     *
+     * @return 被丢弃的事件数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 获取写入失败的次数，写入失败的事件被丢弃并计入getDroppedCount()
+     *
+     * @return 写入失败的次数
+     */
+    public long getWriteErrorCount() {
+        return writeErrors.sum();
+    }
+
+    /**
+     * 后台线程循环取出事件并批量写入<br>
+     * 事件在写入前出队，写入失败时该事件被丢弃，不会反复重试同一事件；关闭后写入失败则丢弃剩余事件并退出
+     */
+    private void drain() {
+        StringBuilder line = new StringBuilder(128);
+        while (true) {
+            int batch = 0;
+            try {
+                while (batch < MAX_BATCH) {
+                    long sequence = consumerSequence;
+                    int index = (int) (sequence & mask);
+                    if (published.get(index) != sequence) {
+                        break;
+                    }
+                    line.setLength(0);
+                    line.append(new Date(timestamps[index])).append(": ")
+                            .append(keys[index]).append(events[index].message).append('\n');
+                    keys[index] = null;
+                    consumerSequence = sequence + 1;
+                    batch++;
+                    writer.append(line);
+                }
+                if (batch == 0) {
+                    writer.flush();
+                    if (!running && producerSequence.get() == consumerSequence) {
+                        return;
+                    }
+                    LockSupport.parkNanos(1_000_000L);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                writeErrors.increment();
+                if (batch > 0) {
+                    dropped.increment();
+                }
+                if (!running) {
+                    long remaining = producerSequence.get() - consumerSequence;
+                    consumerSequence += remaining;
+                    dropped.add(remaining);
+                    return;
+                }
+                LockSupport.parkNanos(1_000_000L);
+            }
+        }
+    }
+
+    /**
+     * 写出缓冲区中剩余的事件后关闭输出，关闭后的事件会被丢弃<br>
+     * 最多等待后台线程CLOSE_TIMEOUT_MILLIS毫秒
+     *
+     * @throws IOException 关闭输出失败
+     */
+    @Override
+    public void close() throws IOException {
+        if (installed == this) {
+            installed = null;
+        }
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+}
@@ -0,0 +1,77 @@
+package com.utils.demo.Listener;
+
+import com.utils.demo.Audit.JdbcAuditSink;
+import com.utils.demo.History.ExecutionRecord;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+
+/**
+ * 输出审计记录的任务监听类
+ *
+ * 将每次执行的开始时间、耗时、执行结果及异常类名放入已安装的JdbcAuditSink，由其批量写入数据库，不输出日志<br>
+ * 未安装审计输出时不做记录
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class AuditJobListener implements JobListener {
+
+    /**
+     * 获取监听器名
+     *
+     * @return 监听器名
+     */
+    @Override
+    public String getName() {
+        return "AuditJobListener";
+    }
+
+    /**
+     * 监听对象即将执行时触发
+     *
+     * @param jobExecutionContext   任务上下文
+     */
+    @Override
+    public void jobToBeExecuted(JobExecutionContext jobExecutionContext) {
+    }
+
+    /**
+     * 监听对象执行被否决时触发，记录否决结果
+     *
+     * @param jobExecutionContext   任务上下文
+     */
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext jobExecutionContext) {
+        long now = System.currentTimeMillis();
+        this.append(jobExecutionContext, now, now, ExecutionRecord.Outcome.VETOED, null);
+    }
+
+    /**
+     * 监听对象执行完毕时触发，记录执行耗时及结果
+     *
+     * @param jobExecutionContext   任务上下文
+     * @param e 继承SchedulerException的异常
+     */
+    @Override
+    public void jobWasExecuted(JobExecutionContext jobExecutionContext, JobExecutionException e) {
+        long start = jobExecutionContext.getFireTime().getTime();
+        long end = start + Math.max(0, jobExecutionContext.getJobRunTime());
+        if (e == null) {
+            this.append(jobExecutionContext, start, end, ExecutionRecord.Outcome.SUCCESS, null);
+        } else {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            this.append(jobExecutionContext, start, end, ExecutionRecord.Outcome.FAILED, cause.getClass().getName());
+        }
+    }
+
+    private void append(JobExecutionContext jobExecutionContext, long start, long end,
+                        ExecutionRecord.Outcome outcome, String exceptionClass) {
+        JdbcAuditSink sink = JdbcAuditSink.current();
+        if (sink == null) {
+            return;
+        }
+        sink.write(new ExecutionRecord(jobExecutionContext.getJobDetail().getKey(),
+                jobExecutionContext.getTrigger().getKey(), start, end, outcome, exceptionClass));
+    }
+}
@@ -0,0 +1,377 @@
+package com.utils.demo.Listener;
+
+import org.quartz.CalendarIntervalTrigger;
+import org.quartz.CronTrigger;
+import org.quartz.DailyTimeIntervalTrigger;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerListener;
+import org.quartz.listeners.SchedulerListenerSupport;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 错过触发后补偿触发的限流监听类
+ *
+ * 调度器暂停或停机后大量触发器同时错过触发，按misfire策略会在恢复时同时补偿触发<br>
+ * 此监听器在triggerMisfired中记录会立即补偿的触发器，补偿触发执行前从令牌桶中取令牌，没有令牌时将本次执行推迟到令牌桶的下一个空闲时刻
+ * (当前时间 + 排队序号 / 每秒补偿触发数)：为同一Job注册一个只触发一次的补偿触发器(CATCH_UP_GROUP组，携带原触发器的JobDataMap及优先级)，
+ * 再否决当前的立即执行，补偿触发不会被丢弃，原触发器按misfire策略继续之后的触发<br>
+ * 优先级不低于exemptPriority的触发器不受限流，可通过QuartzManagerUtil.setTriggerGroupPriority按触发器组设置优先级<br>
+ * 同时作为调度器监听，触发器或Job被删除、调度器被清空时移除其待补偿记录；Job被删除时其推迟的补偿触发器一并被删除，
+ * 只删除原触发器时已推迟的补偿触发仍会执行<br>
+ * 限制: 推迟发生在工作线程中，被推迟的补偿触发仍会占用一个工作线程片刻及一次JobStore事务，
+ * 不能减少恢复瞬间JobStore的负载，但Job的执行被均匀分散，不会同时占满线程池
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class CatchUpTriggerListener extends SchedulerListenerSupport implements TriggerListener {
+
+    /**
+     * 推迟的补偿触发器所在的触发器组
+     */
+    public static final String CATCH_UP_GROUP = "CATCH_UP";
+
+    /**
+     * 每纳秒补充的令牌数
+     */
+    private final double tokensPerNano;
+
+    /**
+     * 令牌桶容量
+     */
+    private final double burst;
+
+    /**
+     * 不受限流的最低优先级
+     */
+    private final int exemptPriority;
+
+    private double tokens;
+
+    private long refilledAt = System.nanoTime();
+
+    /**
+     * 等待补偿触发的触发器及其错过触发记录
+     */
+    private final Map<TriggerKey, Misfire> backlog = new ConcurrentHashMap<>();
+
+    /**
+     * 已推迟、等待执行的补偿触发器及其错过触发记录
+     */
+    private final Map<TriggerKey, Misfire> deferred = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 各触发器组的错过触发次数
+     */
+    private final Map<String, LongAdder> misfired = new ConcurrentHashMap<>();
+
+    private final LongAdder recovered = new LongAdder();
+
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * 补偿触发距错过触发被处理的延迟(毫秒)
+     */
+    private final LatencyHistogram recoveryDelay = new LatencyHistogram();
+
+    /**
+     * 创建补偿触发限流监听器
+     *
+     * @param firesPerSecond 每秒允许的补偿触发数
+     * @param burst          令牌桶容量，即恢复瞬间允许的补偿触发数
+     * @param exemptPriority 不受限流的最低触发器优先级
+     */
+    public CatchUpTriggerListener(double firesPerSecond, int burst, int exemptPriority) {
+        if (firesPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("firesPerSecond及burst必须大于0");
+        }
+        this.tokensPerNano = firesPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.exemptPriority = exemptPriority;
+        this.tokens = burst;
+    }
+
+    /**
+     * 获取监听器名
+     *
+     * @return 监听器名
+     */
+    @Override
+    public String getName() {
+        return "CatchUpTriggerListener";
+    }
+
+    /**
+     * 监听对象被触发时触发
+     *
+     * @param trigger   触发器
+     * @param jobExecutionContext   任务上下文
+     */
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext jobExecutionContext) {
+    }
+
+    /**
+     * 补偿触发时取令牌，没有令牌且优先级低于exemptPriority时推迟到令牌桶的空闲时刻执行，并否决当前的立即执行
+     *
+     * @param trigger   触发器
+     * @param jobExecutionContext   任务上下文
+     * @return  boolean vetoedExecution
+     */
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext jobExecutionContext) {
+        Misfire misfire = deferred.remove(trigger.getKey());
+        if (misfire == null) {
+            misfire = backlog.remove(trigger.getKey());
+            if (misfire == null) {
+                return false;
+            }
+            long waitNanos = trigger.getPriority() >= exemptPriority ? 0 : this.reserve();
+            if (waitNanos > 0 && this.defer(trigger, misfire, waitNanos, jobExecutionContext)) {
+                throttled.increment();
+                return true;
+            }
+        }
+        recovered.increment();
+        recoveryDelay.record(System.currentTimeMillis() - misfire.misfiredAt);
+        return false;
+    }
+
+    /**
+     * 为触发器的Job注册一个在waitNanos后触发一次的补偿触发器
+     *
+     * @param trigger   原触发器
+     * @param misfire   错过触发记录
+     * @param waitNanos 推迟的时间(纳秒)
+     * @param jobExecutionContext   任务上下文
+     * @return 注册失败时返回false，本次补偿触发立即执行
+     */
+    private boolean defer(Trigger trigger, Misfire misfire, long waitNanos, JobExecutionContext jobExecutionContext) {
+        TriggerKey origin = trigger.getKey();
+        TriggerKey catchUpKey = new TriggerKey(origin.getGroup() + "." + origin.getName() + "#"
+                + System.currentTimeMillis() + "-" + sequence.incrementAndGet(), CATCH_UP_GROUP);
+        Trigger catchUp = TriggerBuilder.newTrigger()
+                .withIdentity(catchUpKey)
+                .forJob(trigger.getJobKey())
+                .usingJobData(trigger.getJobDataMap())
+                .withPriority(trigger.getPriority())
+                .startAt(new Date(System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(waitNanos)))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+                .build();
+        deferred.put(catchUpKey, misfire);
+        try {
+            jobExecutionContext.getScheduler().scheduleJob(catchUp);
+            return true;
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            deferred.remove(catchUpKey);
+            return false;
+        }
+    }
+
+    /**
+     * 任务错过触发时间时触发，记录错过次数，会立即补偿的触发器加入待补偿集合
+     *
+     * @param trigger   触发器
+     */
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        misfired.computeIfAbsent(trigger.getKey().getGroup(), group -> new LongAdder()).increment();
+        //监听在misfire策略生效前被调用，按策略判断是否会立即补偿，推迟的补偿触发器错过时直接立即执行
+        if (!CATCH_UP_GROUP.equals(trigger.getKey().getGroup()) && firesNow(trigger)) {
+            backlog.put(trigger.getKey(), new Misfire(trigger.getJobKey(), System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     *  触发执行完成时触发
+     *
+     * @param trigger   触发器
+     * @param jobExecutionContext   任务上下文
+     * @param completedExecutionInstruction 完成情况
+     */
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext jobExecutionContext, Trigger.CompletedExecutionInstruction completedExecutionInstruction) {
+    }
+
+    /**
+     * 触发器被删除时移除其待补偿记录，调用Scheduler.clear()时triggerKey为null
+     *
+     * @param triggerKey 被删除的触发器的triggerKey
+     */
+    @Override
+    public void jobUnscheduled(TriggerKey triggerKey) {
+        if (triggerKey == null) {
+            backlog.clear();
+            deferred.clear();
+        } else {
+            backlog.remove(triggerKey);
+            deferred.remove(triggerKey);
+        }
+    }
+
+    /**
+     * 触发器不会再触发时移除其待补偿记录
+     *
+     * @param trigger 触发器
+     */
+    @Override
+    public void triggerFinalized(Trigger trigger) {
+        backlog.remove(trigger.getKey());
+        deferred.remove(trigger.getKey());
+    }
+
+    /**
+     * Job被删除时移除其所有触发器的待补偿记录，deleteJobs只通知jobDeleted
+     *
+     * @param jobKey 被删除的Job的jobKey
+     */
+    @Override
+    public void jobDeleted(JobKey jobKey) {
+        backlog.values().removeIf(misfire -> jobKey.equals(misfire.jobKey));
+        deferred.values().removeIf(misfire -> jobKey.equals(misfire.jobKey));
+    }
+
+    @Override
+    public void schedulingDataCleared() {
+        backlog.clear();
+        deferred.clear();
+    }
+
+    /**
+     * 按触发器类型及misfire策略判断错过触发后是否会立即补偿触发
+     *
+     * @param trigger 触发器
+     * @return 会立即补偿时返回true
+     */
+    private static boolean firesNow(Trigger trigger) {
+        int instruction = trigger.getMisfireInstruction();
+        if (trigger instanceof SimpleTrigger) {
+            if (instruction == Trigger.MISFIRE_INSTRUCTION_SMART_POLICY) {
+                //重复次数为无限时SMART策略等同于RESCHEDULE_NEXT_WITH_REMAINING_COUNT
+                return ((SimpleTrigger) trigger).getRepeatCount() != SimpleTrigger.REPEAT_INDEFINITELY;
+            }
+            return instruction == SimpleTrigger.MISFIRE_INSTRUCTION_FIRE_NOW
+                    || instruction == SimpleTrigger.MISFIRE_INSTRUCTION_RESCHEDULE_NOW_WITH_EXISTING_REPEAT_COUNT
+                    || instruction == SimpleTrigger.MISFIRE_INSTRUCTION_RESCHEDULE_NOW_WITH_REMAINING_REPEAT_COUNT;
+        }
+        if (trigger instanceof CronTrigger || trigger instanceof CalendarIntervalTrigger
+                || trigger instanceof DailyTimeIntervalTrigger) {
+            return instruction == Trigger.MISFIRE_INSTRUCTION_SMART_POLICY
+                    || instruction == CronTrigger.MISFIRE_INSTRUCTION_FIRE_ONCE_NOW;
+        }
+        return false;
+    }
+
+    /**
+     * 补充令牌后预约一个令牌，令牌不足时预约之后的令牌，第k个排队的预约需等待k / 每秒补偿触发数
+     *
+     * @return 需要等待的时间(纳秒)，有令牌时返回0
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        tokens--;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) (-tokens / tokensPerNano);
+    }
+
+    /**
+     * 获取错过触发的总次数
+     *
+     * @return 次数
+     */
+    public long getMisfireCount() {
+        long count = 0;
+        for (LongAdder adder : misfired.values()) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    /**
+     * 获取各触发器组错过触发的次数
+     *
+     * @return 触发器组名与次数的映射
+     */
+    public Map<String, Long> getMisfireCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : misfired.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+
+    /**
+     * 获取等待补偿触发的触发器数，包括已推迟尚未执行的补偿触发器
+     *
+     * @return 触发器数
+     */
+    public int getBacklog() {
+        return backlog.size() + deferred.size();
+    }
+
+    /**
+     * 获取已执行的补偿触发次数
+     *
+     * @return 次数
+     */
+    public long getRecoveredCount() {
+        return recovered.sum();
+    }
+
+    /**
+     * 获取因限流被推迟执行的补偿触发次数
+     *
+     * @return 次数
+     */
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * 获取补偿触发距错过触发被处理的延迟分布(毫秒)
+     *
+     * @return 延迟直方图
+     */
+    public LatencyHistogram getRecoveryDelay() {
+        return recoveryDelay;
+    }
+
+    /**
+     * 待补偿的错过触发记录
+     */
+    private static final class Misfire {
+
+        private final JobKey jobKey;
+
+        /**
+         * 错过触发被处理的时间(毫秒)
+         */
+        private final long misfiredAt;
+
+        private Misfire(JobKey jobKey, long misfiredAt) {
+            this.jobKey = jobKey;
+            this.misfiredAt = misfiredAt;
+        }
+    }
+}
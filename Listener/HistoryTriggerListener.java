@@ -0,0 +1,88 @@
+package com.utils.demo.Listener;
+
+import com.utils.demo.History.ExecutionHistoryStore;
+import com.utils.demo.History.ExecutionRecord;
+import org.quartz.JobExecutionContext;
+import org.quartz.Trigger;
+import org.quartz.TriggerListener;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * 记录错过触发的触发器监听类
+ *
+ * 将错过的计划触发时间及错过时长写入已安装的ExecutionHistoryStore，不输出日志<br>
+ * 未安装执行历史存储时不做记录
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class HistoryTriggerListener implements TriggerListener {
+
+    /**
+     * 获取监听器名
+     *
+     * @return 监听器名
+     */
+    @Override
+    public String getName() {
+        return "HistoryTriggerListener";
+    }
+
+    /**
+     * 监听对象被触发时触发
+     *
+     * @param trigger   触发器
+     * @param jobExecutionContext   任务上下文
+     */
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext jobExecutionContext) {
+    }
+
+    /**
+     * 不否决任务执行
+     *
+     * @param trigger   触发器
+     * @param jobExecutionContext   任务上下文
+     * @return  boolean vetoedExecution
+     */
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext jobExecutionContext) {
+        return false;
+    }
+
+    /**
+     * 任务错过触发时间时触发，记录错过的计划触发时间，耗时为错过的时长
+     *
+     * @param trigger   触发器
+     */
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        ExecutionHistoryStore store = ExecutionHistoryStore.current();
+        if (store == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        //misfire处理前下次触发时间仍为错过的计划触发时间
+        Date nextFireTime = trigger.getNextFireTime();
+        long start = nextFireTime == null ? now : Math.min(now, nextFireTime.getTime());
+        try {
+            store.append(new ExecutionRecord(trigger.getJobKey(), trigger.getKey(), start, now,
+                    ExecutionRecord.Outcome.MISFIRED, null));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     *  触发执行完成时触发
+     *
+     * @param trigger   触发器
+     * @param jobExecutionContext   任务上下文
+     * @param completedExecutionInstruction 完成情况
+     */
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext jobExecutionContext, Trigger.CompletedExecutionInstruction completedExecutionInstruction) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.utils.demo.Listener;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * 任务运行指标快照
+ *
+ * 执行耗时与触发延迟的单位均为毫秒
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class JobMetricsSnapshot {
+
+    private final String jobKey;
+
+    private final long fireCount;
+
+    private final long misfireCount;
+
+    private final long vetoCount;
+
+    private final long failureCount;
+
+    private final double latencyMean;
+
+    private final long latencyP50;
+
+    private final long latencyP99;
+
+    private final long latencyMax;
+
+    private final double lagMean;
+
+    private final long lagP99;
+
+    private final long lagMax;
+
+    @ConstructorProperties({"jobKey", "fireCount", "misfireCount", "vetoCount", "failureCount",
+            "latencyMean", "latencyP50", "latencyP99", "latencyMax", "lagMean", "lagP99", "lagMax"})
+    public JobMetricsSnapshot(String jobKey, long fireCount, long misfireCount, long vetoCount, long failureCount,
+                              double latencyMean, long latencyP50, long latencyP99, long latencyMax,
+                              double lagMean, long lagP99, long lagMax) {
+        this.jobKey = jobKey;
+        this.fireCount = fireCount;
+        this.misfireCount = misfireCount;
+        this.vetoCount = vetoCount;
+        this.failureCount = failureCount;
+        this.latencyMean = latencyMean;
+        this.latencyP50 = latencyP50;
+        this.latencyP99 = latencyP99;
+        this.latencyMax = latencyMax;
+        this.lagMean = lagMean;
+        this.lagP99 = lagP99;
+        this.lagMax = lagMax;
+    }
+
+    /**
+     * @return 任务JobKey
+     */
+    public String getJobKey() {
+        return jobKey;
+    }
+
+    /**
+     * @return 触发次数
+     */
+    public long getFireCount() {
+        return fireCount;
+    }
+
+    /**
+     * @return 错过触发次数
+     */
+    public long getMisfireCount() {
+        return misfireCount;
+    }
+
+    /**
+     * @return 被否决执行次数
+     */
+    public long getVetoCount() {
+        return vetoCount;
+    }
+
+    /**
+     * @return 执行抛出异常次数
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return 平均执行耗时
+     */
+    public double getLatencyMean() {
+        return latencyMean;
+    }
+
+    /**
+     * @return 执行耗时中位数
+     */
+    public long getLatencyP50() {
+        return latencyP50;
+    }
+
+    /**
+     * @return 执行耗时99分位
+     */
+    public long getLatencyP99() {
+        return latencyP99;
+    }
+
+    /**
+     * @return 最大执行耗时
+     */
+    public long getLatencyMax() {
+        return latencyMax;
+    }
+
+    /**
+     * @return 从计划触发时间到开始执行的平均延迟
+     */
+    public double getLagMean() {
+        return lagMean;
+    }
+
+    /**
+     * @return 从计划触发时间到开始执行的延迟99分位
+     */
+    public long getLagP99() {
+        return lagP99;
+    }
+
+    /**
+     * @return 从计划触发时间到开始执行的最大延迟
+     */
+    public long getLagMax() {
+        return lagMax;
+    }
+
+    @Override
+    public String toString() {
+        return jobKey + "{fired=" + fireCount + ", misfired=" + misfireCount + ", vetoed=" + vetoCount
+                + ", failed=" + failureCount + ", latencyP50=" + latencyP50 + "ms, latencyP99=" + latencyP99
+                + "ms, lagP99=" + lagP99 + "ms}";
+    }
+}
@@ -0,0 +1,133 @@
+package com.utils.demo.Listener;
+
+import org.quartz.JobKey;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 任务运行指标
+ *
+ * 由MetricsJobListener与MetricsTriggerListener记录，所有监听器实例共享同一份指标<br>
+ * 计数使用LongAdder，耗时使用LatencyHistogram，记录时不加锁
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class ListenerMetrics implements ListenerMetricsMXBean {
+
+    /**
+     * JMX注册名
+     */
+    public static final String OBJECT_NAME = "com.utils.demo:type=ListenerMetrics";
+
+    private static final ListenerMetrics INSTANCE = new ListenerMetrics();
+
+    /**
+     * JobKey到其运行指标的映射
+     */
+    private final Map<JobKey, JobMetrics> metrics = new ConcurrentHashMap<>();
+
+    private ListenerMetrics() {
+    }
+
+    /**
+     * 获取共享的任务运行指标
+     *
+     * @return 任务运行指标
+     */
+    public static ListenerMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 将任务运行指标注册到平台MBeanServer，重复注册时忽略
+     *
+     * @throws JMException JMX异常
+     */
+    public static void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException ignored) {
+            //已经注册
+        }
+    }
+
+    /**
+     * 获取JobKey对应的运行指标，不存在时创建
+     *
+     * @param jobKey 任务JobKey
+     * @return 运行指标
+     */
+    JobMetrics of(JobKey jobKey) {
+        JobMetrics jobMetrics = metrics.get(jobKey);
+        if (jobMetrics == null) {
+            jobMetrics = metrics.computeIfAbsent(jobKey, k -> new JobMetrics());
+        }
+        return jobMetrics;
+    }
+
+    /**
+     * 获取单个任务的运行指标快照
+     *
+     * @param jobKey 任务JobKey
+     * @return 运行指标快照，没有记录时返回null
+     */
+    public JobMetricsSnapshot snapshot(JobKey jobKey) {
+        JobMetrics jobMetrics = metrics.get(jobKey);
+        return jobMetrics == null ? null : jobMetrics.snapshot(jobKey);
+    }
+
+    @Override
+    public List<JobMetricsSnapshot> getJobMetrics() {
+        List<JobMetricsSnapshot> snapshots = new ArrayList<>(metrics.size());
+        for (Map.Entry<JobKey, JobMetrics> entry : metrics.entrySet()) {
+            snapshots.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        return snapshots;
+    }
+
+    @Override
+    public void reset() {
+        metrics.clear();
+    }
+
+    /**
+     * 单个任务的运行指标
+     */
+    static final class JobMetrics {
+
+        final LongAdder fired = new LongAdder();
+
+        final LongAdder misfired = new LongAdder();
+
+        final LongAdder vetoed = new LongAdder();
+
+        final LongAdder failed = new LongAdder();
+
+        /**
+         * 执行耗时(毫秒)
+         */
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        /**
+         * 从计划触发时间到开始执行的延迟(毫秒)
+         */
+        final LatencyHistogram lag = new LatencyHistogram();
+
+        JobMetricsSnapshot snapshot(JobKey jobKey) {
+            return new JobMetricsSnapshot(jobKey.toString(), fired.sum(), misfired.sum(), vetoed.sum(),
+                    failed.sum(), latency.getMean(), latency.getPercentile(50), latency.getPercentile(99),
+                    latency.getMax(), lag.getMean(), lag.getPercentile(99), lag.getMax());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.utils.demo.Listener;
+
+import java.util.List;
+
+/**
+ * 任务运行指标的JMX接口
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public interface ListenerMetricsMXBean {
+
+    /**
+     * 获取所有任务的运行指标
+     *
+     * @return 运行指标快照列表
+     */
+    List<JobMetricsSnapshot> getJobMetrics();
+
+    /**
+     * 清空所有任务的运行指标
+     */
+    void reset();
+}
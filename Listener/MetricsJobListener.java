@@ -0,0 +1,70 @@
+package com.utils.demo.Listener;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+
+import java.util.Date;
+
+/**
+ * 记录运行指标的任务监听类
+ *
+ * 记录执行耗时、触发延迟、否决及失败次数，不输出日志<br>
+ * 指标通过ListenerMetrics.getInstance()获取
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class MetricsJobListener implements JobListener {
+
+    private final ListenerMetrics metrics = ListenerMetrics.getInstance();
+
+    /**
+     * 获取监听器名
+     *
+     * @return 监听器名
+     */
+    @Override
+    public String getName() {
+        return "MetricsJobListener";
+    }
+
+    /**
+     * 监听对象即将执行时触发，记录从计划触发时间到开始执行的延迟
+     *
+     * @param jobExecutionContext   任务上下文
+     */
+    @Override
+    public void jobToBeExecuted(JobExecutionContext jobExecutionContext) {
+        Date scheduledFireTime = jobExecutionContext.getScheduledFireTime();
+        if (scheduledFireTime != null) {
+            metrics.of(jobExecutionContext.getJobDetail().getKey()).lag
+                    .record(System.currentTimeMillis() - scheduledFireTime.getTime());
+        }
+    }
+
+    /**
+     * 监听对象执行失败时触发
+     *
+     * @param jobExecutionContext   任务上下文
+     */
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext jobExecutionContext) {
+        metrics.of(jobExecutionContext.getJobDetail().getKey()).vetoed.increment();
+    }
+
+    /**
+     * 监听对象执行完毕时触发，记录执行耗时
+     *
+     * @param jobExecutionContext   任务上下文
+     * @param e 继承SchedulerException的异常
+     */
+    @Override
+    public void jobWasExecuted(JobExecutionContext jobExecutionContext, JobExecutionException e) {
+        ListenerMetrics.JobMetrics jobMetrics = metrics.of(jobExecutionContext.getJobDetail().getKey());
+        jobMetrics.latency.record(jobExecutionContext.getJobRunTime());
+        if (e != null) {
+            jobMetrics.failed.increment();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.utils.demo.Listener;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.Trigger;
+import org.quartz.TriggerListener;
+
+/**
+ * 记录运行指标的触发器监听类
+ *
+ * 按触发器所属的JobKey记录触发及错过触发次数，不输出日志<br>
+ * 指标通过ListenerMetrics.getInstance()获取
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class MetricsTriggerListener implements TriggerListener {
+
+    private final ListenerMetrics metrics = ListenerMetrics.getInstance();
+
+    /**
+     * 获取监听器名
+     *
+     * @return 监听器名
+     */
+    @Override
+    public String getName() {
+        return "MetricsTriggerListener";
+    }
+
+    /**
+     * 监听对象被触发时触发
+     *
+     * @param trigger   触发器
+     * @param jobExecutionContext   任务上下文
+     */
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext jobExecutionContext) {
+        metrics.of(trigger.getJobKey()).fired.increment();
+    }
+
+    /**
+     * 不否决任务执行
+     *
+     * @param trigger   触发器
+     * @param jobExecutionContext   任务上下文
+     * @return  boolean vetoedExecution
+     */
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext jobExecutionContext) {
+        return false;
+    }
+
+    /**
+     * 任务错过触发时间时触发
+     *
+     * @param trigger   触发器
+     */
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        metrics.of(trigger.getJobKey()).misfired.increment();
+    }
+
+    /**
+     *  触发执行完成时触发
+     *
+     * @param trigger   触发器
+     * @param jobExecutionContext   任务上下文
+     * @param completedExecutionInstruction 完成情况
+     */
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext jobExecutionContext, Trigger.CompletedExecutionInstruction completedExecutionInstruction) {
+    }
+}
@@ -12,6 +12,8 @@ import java.util.Date;
  *
  * 必须继承JobListener类
  *
+ * 默认直接输出到控制台，调用AsyncLogWriter.install()后改为异步批量输出
+ *
  * @version 1.0.0
  * @author lixin000122
  */
@@ -35,6 +37,11 @@ public class StdJobListener implements JobListener {
     @Override
     public void jobToBeExecuted(JobExecutionContext jobExecutionContext) {
         JobKey jobKey = jobExecutionContext.getJobDetail().getKey();
+        AsyncLogWriter logWriter = AsyncLogWriter.current();
+        if (logWriter != null) {
+            logWriter.log(jobKey, AsyncLogWriter.Event.JOB_TO_BE_EXECUTED);
+            return;
+        }
         System.out.println(new Date() + ": " + jobKey.toString() + "即将执行");
     }
 
@@ -46,6 +53,11 @@ public class StdJobListener implements JobListener {
     @Override
     public void jobExecutionVetoed(JobExecutionContext jobExecutionContext) {
         JobKey jobKey = jobExecutionContext.getJobDetail().getKey();
+        AsyncLogWriter logWriter = AsyncLogWriter.current();
+        if (logWriter != null) {
+            logWriter.log(jobKey, AsyncLogWriter.Event.JOB_EXECUTION_VETOED);
+            return;
+        }
         System.out.println(new Date() + ": " + jobKey.toString() + "执行失败");
     }
 
@@ -58,6 +70,11 @@ public class StdJobListener implements JobListener {
     @Override
     public void jobWasExecuted(JobExecutionContext jobExecutionContext, JobExecutionException e) {
         JobKey jobKey = jobExecutionContext.getJobDetail().getKey();
+        AsyncLogWriter logWriter = AsyncLogWriter.current();
+        if (logWriter != null) {
+            logWriter.log(jobKey, AsyncLogWriter.Event.JOB_WAS_EXECUTED);
+            return;
+        }
         System.out.println(new Date() + ": " + jobKey.toString() + "执行完毕");
     }
 }
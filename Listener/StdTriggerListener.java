@@ -12,6 +12,8 @@ import java.util.Date;
  *
  * 必须继承TriggerListener类
  *
+ * 默认直接输出到控制台，调用AsyncLogWriter.install()后改为异步批量输出
+ *
  * @version 1.0.0
  * @author lixin000122
  */
@@ -35,7 +37,11 @@ public class StdTriggerListener implements TriggerListener {
      */
     @Override
     public void triggerFired(Trigger trigger, JobExecutionContext jobExecutionContext) {
-
+        AsyncLogWriter logWriter = AsyncLogWriter.current();
+        if (logWriter != null) {
+            logWriter.log(trigger.getKey(), AsyncLogWriter.Event.TRIGGER_FIRED);
+            return;
+        }
         System.out.println(new Date() + ": " + trigger.getKey().toString() + " 被触发了");
     }
 
@@ -49,6 +55,11 @@ public class StdTriggerListener implements TriggerListener {
     @Override
     public boolean vetoJobExecution(Trigger trigger, JobExecutionContext jobExecutionContext) {
         boolean vetoedExecution = false;
+        AsyncLogWriter logWriter = AsyncLogWriter.current();
+        if (logWriter != null) {
+            logWriter.log(trigger.getKey(), AsyncLogWriter.Event.TRIGGER_VETO_CHECKED);
+            return vetoedExecution;
+        }
         System.out.println(new Date() + ": " + trigger.getKey().toString() + "当前Job的相关资源准备是否出现问题: " + vetoedExecution);
         return vetoedExecution;
     }
@@ -60,6 +71,11 @@ public class StdTriggerListener implements TriggerListener {
      */
     @Override
     public void triggerMisfired(Trigger trigger) {
+        AsyncLogWriter logWriter = AsyncLogWriter.current();
+        if (logWriter != null) {
+            logWriter.log(trigger.getKey(), AsyncLogWriter.Event.TRIGGER_MISFIRED);
+            return;
+        }
         System.out.println(new Date() + ": " + trigger.getKey().toString() + "错过了触发时间");
     }
 
@@ -72,6 +88,11 @@ public class StdTriggerListener implements TriggerListener {
      */
     @Override
     public void triggerComplete(Trigger trigger, JobExecutionContext jobExecutionContext, Trigger.CompletedExecutionInstruction completedExecutionInstruction) {
+        AsyncLogWriter logWriter = AsyncLogWriter.current();
+        if (logWriter != null) {
+            logWriter.log(trigger.getKey(), AsyncLogWriter.Event.TRIGGER_COMPLETE);
+            return;
+        }
         System.out.println(new Date() + ": " + trigger.getKey().toString() + "触发执行完成");
     }
 }
@@ -0,0 +1,154 @@
+package com.utils.demo.utils;
+
+import org.quartz.*;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>监听器注册表
+ *
+ * <p>每个监听类只创建一个实例，并只以一个KeySetMatcher注册到调度器<br>
+ * 之后为该监听类添加或移除Key只修改匹配器中的集合，每次触发时的监听分发耗时不随任务数量增长
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class ListenerRegistry {
+
+    /**
+     * 注册表对应的调度器
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * 任务监听类到其匹配器的映射
+     */
+    private final Map<Class<? extends JobListener>, KeySetMatcher<JobKey>> jobMatchers = new ConcurrentHashMap<>();
+
+    /**
+     * 触发器监听类到其匹配器的映射
+     */
+    private final Map<Class<? extends TriggerListener>, KeySetMatcher<TriggerKey>> triggerMatchers = new ConcurrentHashMap<>();
+
+    /**
+     * 创建监听器注册表
+     *
+     * @param scheduler 注册表对应的调度器
+     */
+    public ListenerRegistry(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 获取注册表对应的调度器
+     *
+     * @return 调度器
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 获取任务监听类的匹配器，首次使用时创建监听器实例并注册到调度器
+     *
+     * @param jobListenerClass 任务监听类
+     * @return 匹配器
+     * @throws Exception 自定义异常
+     */
+    public synchronized KeySetMatcher<JobKey> jobMatcher(Class<? extends JobListener> jobListenerClass) throws Exception {
+        KeySetMatcher<JobKey> matcher = jobMatchers.get(jobListenerClass);
+        if (matcher == null) {
+            matcher = new KeySetMatcher<>();
+            scheduler.getListenerManager().addJobListener(newInstance(jobListenerClass), matcher);
+            jobMatchers.put(jobListenerClass, matcher);
+        }
+        return matcher;
+    }
+
+    /**
+     * 获取触发器监听类的匹配器，首次使用时创建监听器实例并注册到调度器
+     *
+     * @param triggerListenerClass 触发器监听类
+     * @return 匹配器
+     * @throws Exception 自定义异常
+     */
+    public synchronized KeySetMatcher<TriggerKey> triggerMatcher(Class<? extends TriggerListener> triggerListenerClass) throws Exception {
+        KeySetMatcher<TriggerKey> matcher = triggerMatchers.get(triggerListenerClass);
+        if (matcher == null) {
+            matcher = new KeySetMatcher<>();
+            scheduler.getListenerManager().addTriggerListener(newInstance(triggerListenerClass), matcher);
+            triggerMatchers.put(triggerListenerClass, matcher);
+        }
+        return matcher;
+    }
+
+    /**
+     * 为任务监听类添加需要监听的JobKey
+     *
+     * @param jobListenerClass 任务监听类
+     * @param jobKeys          需要监听的JobKey
+     * @throws Exception 自定义异常
+     */
+    public void addJobKeys(Class<? extends JobListener> jobListenerClass, Collection<JobKey> jobKeys) throws Exception {
+        this.jobMatcher(jobListenerClass).addKeys(jobKeys);
+    }
+
+    /**
+     * 为任务监听类移除监听的JobKey
+     *
+     * @param jobListenerClass 任务监听类
+     * @param jobKeys          不再监听的JobKey
+     */
+    public void removeJobKeys(Class<? extends JobListener> jobListenerClass, Collection<JobKey> jobKeys) {
+        KeySetMatcher<JobKey> matcher = jobMatchers.get(jobListenerClass);
+        if (matcher != null) {
+            matcher.removeKeys(jobKeys);
+        }
+    }
+
+    /**
+     * 为触发器监听类添加需要监听的TriggerKey
+     *
+     * @param triggerListenerClass 触发器监听类
+     * @param triggerKeys          需要监听的TriggerKey
+     * @throws Exception 自定义异常
+     */
+    public void addTriggerKeys(Class<? extends TriggerListener> triggerListenerClass, Collection<TriggerKey> triggerKeys) throws Exception {
+        this.triggerMatcher(triggerListenerClass).addKeys(triggerKeys);
+    }
+
+    /**
+     * 为触发器监听类移除监听的TriggerKey
+     *
+     * @param triggerListenerClass 触发器监听类
+     * @param triggerKeys          不再监听的TriggerKey
+     */
+    public void removeTriggerKeys(Class<? extends TriggerListener> triggerListenerClass, Collection<TriggerKey> triggerKeys) {
+        KeySetMatcher<TriggerKey> matcher = triggerMatchers.get(triggerListenerClass);
+        if (matcher != null) {
+            matcher.removeKeys(triggerKeys);
+        }
+    }
+
+    /**
+     * 实例化监听类
+     *
+     * @param listenerClass 监听类
+     * @param <L>           监听类类型
+     * @return 监听器实例
+     * @throws Exception 自定义异常
+     */
+    private static <L> L newInstance(Class<L> listenerClass) throws Exception {
+        try {
+            return listenerClass.newInstance();
+        } catch (InstantiationException e) {
+            e.printStackTrace();
+            throw new Exception("出现了实例化异常，可能是传入的监听类没有无参构造方法");
+        } catch (IllegalAccessException e) {
+            e.printStackTrace();
+            throw new Exception("出现了访问权限异常，可能是错误的使用了private修饰符");
+        }
+    }
+}
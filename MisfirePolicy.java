@@ -0,0 +1,53 @@
+package com.utils.demo.utils;
+
+import org.quartz.CronScheduleBuilder;
+
+/**
+ * <p>cron触发器错过触发时间后的处理策略
+ *
+ * <p>调度器暂停、GC停顿或停机后重新启动时，错过触发的触发器按此策略补偿
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public enum MisfirePolicy {
+
+    /**
+     * quartz默认策略，cron触发器等同于FIRE_ONCE_NOW
+     */
+    SMART,
+
+    /**
+     * 立即补偿触发一次，然后按cron表达式继续
+     */
+    FIRE_ONCE_NOW,
+
+    /**
+     * 不补偿，等待下一次计划触发时间
+     */
+    DO_NOTHING,
+
+    /**
+     * 补偿所有错过的触发，不通知misfire监听
+     */
+    IGNORE_MISFIRES;
+
+    /**
+     * 为cron调度设置此策略
+     *
+     * @param scheduleBuilder cron调度
+     * @return 设置后的cron调度
+     */
+    CronScheduleBuilder applyTo(CronScheduleBuilder scheduleBuilder) {
+        switch (this) {
+            case FIRE_ONCE_NOW:
+                return scheduleBuilder.withMisfireHandlingInstructionFireAndProceed();
+            case DO_NOTHING:
+                return scheduleBuilder.withMisfireHandlingInstructionDoNothing();
+            case IGNORE_MISFIRES:
+                return scheduleBuilder.withMisfireHandlingInstructionIgnoreMisfires();
+            default:
+                return scheduleBuilder;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.utils.demo.utils;
+
+import org.quartz.*;
+import org.quartz.impl.jdbcjobstore.JobStoreSupport;
+import org.quartz.impl.matchers.GroupMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>按组并行批量操作管理器
+ *
+ * <p>将批量删除、更新、修改cron及清空调度器按任务组或触发器组拆分，各组在线程池中并行执行，每组内仍按QuartzManagerUtil的方式分批提交<br>
+ * 同时执行的组数不超过并行度，使用JDBC JobStore时并行度还受连接池中调度器工作线程用剩的连接数限制，避免批量操作与任务执行争抢连接<br>
+ * 删除及替换写入在RAMJobStore中持有同一把锁，在JDBC JobStore中需要TRIGGER_ACCESS行锁，各组的这些操作实际上依次执行，
+ * 并行只能重叠读取及组装数据的部分，可以使用ParallelOperationBenchmark测量实际收益<br>
+ * 返回合并后的结果报告及每组、整体的耗时，某组失败时也返回已完成部分的结果
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class ParallelQuartzManager {
+
+    /**
+     * 实际执行操作的调度管理器
+     */
+    private final QuartzManagerUtil quartzManagerUtil;
+
+    /**
+     * 执行各组操作的线程池
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 同时执行的组数上限
+     */
+    private final int parallelism;
+
+    /**
+     * 创建按组并行批量操作管理器
+     *
+     * @param quartzManagerUtil 实际执行操作的调度管理器
+     * @param executor          执行各组操作的线程池
+     * @param parallelism       同时执行的组数上限
+     * @param maxConnections    JDBC连接池的最大连接数，小于等于0时不限制，使用RAMJobStore时忽略
+     * @throws Exception 自定义异常
+     */
+    public ParallelQuartzManager(QuartzManagerUtil quartzManagerUtil, ExecutorService executor, int parallelism,
+                                 int maxConnections) throws Exception {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism必须大于0");
+        }
+        this.quartzManagerUtil = quartzManagerUtil;
+        this.executor = executor;
+        this.parallelism = capParallelism(quartzManagerUtil.getScheduler(), parallelism, maxConnections);
+    }
+
+    /**
+     * 使用ForkJoinPool创建按组并行批量操作管理器
+     *
+     * <p>不按JDBC连接池的最大连接数限制并行度，使用JDBC JobStore时应通过另一个构造方法传入最大连接数
+     *
+     * @param quartzManagerUtil 实际执行操作的调度管理器
+     * @param parallelism       同时执行的组数上限
+     * @throws Exception 自定义异常
+     */
+    public ParallelQuartzManager(QuartzManagerUtil quartzManagerUtil, int parallelism) throws Exception {
+        this(quartzManagerUtil, new ForkJoinPool(parallelism), parallelism, -1);
+    }
+
+    /**
+     * 按JobStore计算实际并行度
+     *
+     * <p>JDBC JobStore的每个操作占用一个连接，调度器工作线程也需要连接，批量操作最多使用剩余的连接，至少为1
+     *
+     * @param scheduler      调度器
+     * @param parallelism    同时执行的组数上限
+     * @param maxConnections JDBC连接池的最大连接数，小于等于0时不限制
+     * @return 实际并行度
+     * @throws Exception 自定义异常
+     */
+    static int capParallelism(Scheduler scheduler, int parallelism, int maxConnections) throws Exception {
+        if (maxConnections <= 0) {
+            return parallelism;
+        }
+        SchedulerMetaData metaData;
+        try {
+            metaData = scheduler.getMetaData();
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("获取调度器信息失败");
+        }
+        if (!JobStoreSupport.class.isAssignableFrom(metaData.getJobStoreClass())) {
+            return parallelism;
+        }
+        int threads = metaData.getThreadPoolSize();
+        return Math.max(1, Math.min(parallelism, maxConnections - threads));
+    }
+
+    /**
+     * 获取实际并行度
+     *
+     * @return 同时执行的组数上限
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 按触发器组并行清空调度器中任务，持久化(durable)的Job及Calendar会被保留
+     *
+     * @return 按组并行批量操作结果报告
+     * @throws Exception 自定义异常
+     */
+    public GroupTaskReport clearScheduler() throws Exception {
+        List<String> groups;
+        try {
+            groups = quartzManagerUtil.getScheduler().getTriggerGroupNames();
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("获取Trigger集合失败");
+        }
+        Map<String, String> partitions = new LinkedHashMap<>();
+        for (String group : groups) {
+            partitions.put(group, group);
+        }
+        return this.runByGroup(partitions, (group, triggerGroup) -> quartzManagerUtil.deleteTaskGroup(triggerGroup, BatchProgress.NONE));
+    }
+
+    /**
+     * 按触发器组并行批量删除任务
+     *
+     * @param triggerKeys 需要删除的触发器TriggerKey
+     * @return 按组并行批量操作结果报告
+     * @throws Exception 自定义异常
+     */
+    public GroupTaskReport deleteTasks(Collection<TriggerKey> triggerKeys) throws Exception {
+        Map<String, List<TriggerKey>> partitions = new LinkedHashMap<>();
+        for (TriggerKey triggerKey : triggerKeys) {
+            partitions.computeIfAbsent(triggerKey.getGroup(), group -> new ArrayList<>()).add(triggerKey);
+        }
+        return this.runByGroup(partitions, (group, keys) -> quartzManagerUtil.deleteTasks(keys));
+    }
+
+    /**
+     * 按任务组并行批量删除Job及其所有触发器
+     *
+     * @param jobKeys 需要删除的JobKey
+     * @return 按组并行批量操作结果报告
+     * @throws Exception 自定义异常
+     */
+    public GroupTaskReport deleteJobs(Collection<JobKey> jobKeys) throws Exception {
+        Map<String, List<JobKey>> partitions = new LinkedHashMap<>();
+        for (JobKey jobKey : jobKeys) {
+            partitions.computeIfAbsent(jobKey.getGroup(), group -> new ArrayList<>()).add(jobKey);
+        }
+        return this.runByGroup(partitions, (group, keys) -> quartzManagerUtil.deleteJobs(keys));
+    }
+
+    /**
+     * 按任务组并行删除多个任务组内的所有Job及其触发器
+     *
+     * @param jobGroups 任务组名
+     * @return 按组并行批量操作结果报告
+     * @throws Exception 自定义异常
+     */
+    public GroupTaskReport deleteJobGroups(Collection<String> jobGroups) throws Exception {
+        Map<String, String> partitions = new LinkedHashMap<>();
+        for (String group : jobGroups) {
+            partitions.put(group, group);
+        }
+        return this.runByGroup(partitions, (group, jobGroup) -> quartzManagerUtil.deleteJobGroup(jobGroup, BatchProgress.NONE));
+    }
+
+    /**
+     * 按任务组并行批量更新任务
+     *
+     * @param tasks 任务JobDetail实例与其触发器集合的映射
+     * @return 按组并行批量操作结果报告
+     * @throws Exception 自定义异常
+     */
+    public GroupTaskReport updateTasks(Map<JobDetail, Set<? extends Trigger>> tasks) throws Exception {
+        Map<String, Map<JobDetail, Set<? extends Trigger>>> partitions = new LinkedHashMap<>();
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : tasks.entrySet()) {
+            partitions.computeIfAbsent(entry.getKey().getKey().getGroup(), group -> new LinkedHashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+        return this.runByGroup(partitions, (group, groupTasks) -> quartzManagerUtil.updateTasks(groupTasks));
+    }
+
+    /**
+     * 按触发器组并行批量修改触发器的cron表达式
+     *
+     * @param crons 触发器TriggerKey与新cron表达式的映射
+     * @return 按组并行批量操作结果报告
+     * @throws Exception 自定义异常
+     */
+    public GroupTaskReport rescheduleTasks(Map<TriggerKey, String> crons) throws Exception {
+        Map<String, Map<TriggerKey, String>> partitions = new LinkedHashMap<>();
+        for (Map.Entry<TriggerKey, String> entry : crons.entrySet()) {
+            partitions.computeIfAbsent(entry.getKey().getGroup(), group -> new LinkedHashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+        return this.runByGroup(partitions, (group, groupCrons) -> quartzManagerUtil.rescheduleTasks(groupCrons));
+    }
+
+    /**
+     * 按触发器组并行修改某个触发器组内所有触发器的cron表达式
+     *
+     * @param triggerGroups 触发器组名
+     * @param cron          新cron表达式
+     * @return 按组并行批量操作结果报告
+     * @throws Exception 自定义异常
+     */
+    public GroupTaskReport rescheduleTaskGroups(Collection<String> triggerGroups, String cron) throws Exception {
+        Scheduler scheduler = quartzManagerUtil.getScheduler();
+        Map<String, String> partitions = new LinkedHashMap<>();
+        for (String group : triggerGroups) {
+            partitions.put(group, group);
+        }
+        return this.runByGroup(partitions, (group, triggerGroup) -> {
+            Map<TriggerKey, String> crons = new LinkedHashMap<>();
+            try {
+                for (TriggerKey triggerKey : scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(triggerGroup))) {
+                    crons.put(triggerKey, cron);
+                }
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+                throw new Exception("获取Trigger集合失败");
+            }
+            return quartzManagerUtil.rescheduleTasks(crons);
+        });
+    }
+
+    /**
+     * 关闭执行各组操作的线程池，已开始的操作会继续执行
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 并行执行各组操作
+     *
+     * <p>启动不超过并行度个工作任务，每个工作任务依次取出尚未执行的组执行<br>
+     * 某组抛出异常后不再开始新的组，等待已开始的组完成后返回，失败及未开始的组记录在结果报告中
+     *
+     * @param partitions 组名与该组操作内容的映射
+     * @param operation  单组操作
+     * @param <T>        操作内容类型
+     * @return 按组并行批量操作结果报告
+     * @throws Exception 自定义异常
+     */
+    private <T> GroupTaskReport runByGroup(Map<String, T> partitions, GroupOperation<T> operation) throws Exception {
+        long begin = System.nanoTime();
+        TaskReport report = new TaskReport();
+        Map<String, Long> millis = new ConcurrentHashMap<>();
+        ConcurrentLinkedQueue<Map.Entry<String, T>> queue = new ConcurrentLinkedQueue<>(partitions.entrySet());
+        Map<String, Exception> failedGroups = new ConcurrentHashMap<>();
+        int workers = Math.min(parallelism, partitions.size());
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(() -> {
+                Map.Entry<String, T> partition;
+                while (failedGroups.isEmpty() && (partition = queue.poll()) != null) {
+                    long groupBegin = System.nanoTime();
+                    try {
+                        TaskReport groupReport = operation.apply(partition.getKey(), partition.getValue());
+                        synchronized (report) {
+                            report.merge(groupReport);
+                        }
+                    } catch (Exception e) {
+                        failedGroups.put(partition.getKey(), e);
+                    }
+                    millis.put(partition.getKey(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - groupBegin));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new Exception("等待按组并行批量操作被中断");
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+                throw new Exception("按组并行执行批量操作失败");
+            }
+        }
+        //按组的原始顺序输出耗时、失败及未开始的组
+        Map<String, Long> groupMillis = new LinkedHashMap<>();
+        Map<String, Exception> failed = new LinkedHashMap<>();
+        List<String> skipped = new ArrayList<>();
+        for (String group : partitions.keySet()) {
+            Long groupTime = millis.get(group);
+            if (groupTime == null) {
+                skipped.add(group);
+                continue;
+            }
+            groupMillis.put(group, groupTime);
+            if (failedGroups.containsKey(group)) {
+                failed.put(group, failedGroups.get(group));
+            }
+        }
+        return new GroupTaskReport(report, groupMillis, failed, skipped,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin), workers);
+    }
+
+    /**
+     * 单组操作
+     *
+     * @param <T> 操作内容类型
+     */
+    @FunctionalInterface
+    private interface GroupOperation<T> {
+
+        /**
+         * 执行一个组的操作
+         *
+         * @param group   组名
+         * @param content 操作内容
+         * @return 批量操作结果报告
+         * @throws Exception 自定义异常
+         */
+        TaskReport apply(String group, T content) throws Exception;
+    }
+}
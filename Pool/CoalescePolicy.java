@@ -0,0 +1,32 @@
+package com.utils.demo.Pool;
+
+/**
+ * <p>同一JobKey重叠触发时的合并策略
+ *
+ * <p>策略保存在JobDataMap的{@link #JOB_DATA_KEY}中，由CoalescingJobFactory在执行时读取
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public enum CoalescePolicy {
+
+    /**
+     * 上一次执行尚未结束时跳过本次触发
+     */
+    SKIP_IF_RUNNING,
+
+    /**
+     * 上一次执行尚未结束时最多保留一次等待执行的触发，之后的触发被跳过
+     */
+    QUEUE_AT_MOST_ONE,
+
+    /**
+     * 上一次执行尚未结束时最多保留一次等待执行的触发，新的触发替换等待中的触发
+     */
+    RUN_LATEST;
+
+    /**
+     * JobDataMap中保存合并策略的键
+     */
+    public static final String JOB_DATA_KEY = "com.utils.demo.Pool.CoalescePolicy";
+}
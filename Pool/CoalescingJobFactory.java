@@ -0,0 +1,295 @@
+package com.utils.demo.Pool;
+
+import org.quartz.InterruptableJob;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.UnableToInterruptJobException;
+import org.quartz.spi.JobFactory;
+import org.quartz.spi.TriggerFiredBundle;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>合并同一JobKey重叠触发的JobFactory
+ *
+ * <p>包装原有的JobFactory，JobDataMap中设置了CoalescePolicy的任务在上一次执行尚未结束时按策略跳过或等待<br>
+ * 每个JobKey的执行状态及等待的触发由CAS维护，不加锁<br>
+ * 每次触发都在自己的工作线程中执行、等待或跳过，异常、监听器及执行后保存JobDataMap都作用于该次触发本身<br>
+ * 被跳过的触发在调度器看来已立即执行完毕；等待中的触发占用一个工作线程，每个JobKey最多一个
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class CoalescingJobFactory implements JobFactory {
+
+    /**
+     * 实际创建Job实例的JobFactory
+     */
+    private final JobFactory delegate;
+
+    /**
+     * JobKey到执行状态的映射
+     */
+    private final Map<JobKey, Slot> slots;
+
+    /**
+     * 被合并的触发总数
+     */
+    private final LongAdder coalesced;
+
+    /**
+     * 单个JobKey的执行状态
+     */
+    private static final class Slot {
+
+        /**
+         * 是否有线程正在执行
+         */
+        private final AtomicBoolean running = new AtomicBoolean(false);
+
+        /**
+         * 等待执行的触发
+         */
+        private final AtomicReference<Waiter> waiter = new AtomicReference<>();
+
+        /**
+         * 被合并的触发数
+         */
+        private final LongAdder coalesced = new LongAdder();
+    }
+
+    /**
+     * 在自己的工作线程中等待执行的触发
+     */
+    private static final class Waiter {
+
+        private static final int WAITING = 0;
+
+        private static final int GRANTED = 1;
+
+        private static final int SUPERSEDED = 2;
+
+        private final Thread thread = Thread.currentThread();
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+    }
+
+    /**
+     * 创建合并重叠触发的JobFactory
+     *
+     * @param delegate 实际创建Job实例的JobFactory
+     */
+    public CoalescingJobFactory(JobFactory delegate) {
+        this.delegate = delegate;
+        this.slots = new ConcurrentHashMap<>();
+        this.coalesced = new LongAdder();
+    }
+
+    /**
+     * 创建与已有JobFactory共用执行状态的JobFactory，替换delegate时正在执行及等待的触发仍与之后的触发互斥
+     *
+     * @param delegate 实际创建Job实例的JobFactory
+     * @param previous 被替换的合并JobFactory
+     */
+    public CoalescingJobFactory(JobFactory delegate, CoalescingJobFactory previous) {
+        this.delegate = delegate;
+        this.slots = previous.slots;
+        this.coalesced = previous.coalesced;
+    }
+
+    @Override
+    public Job newJob(TriggerFiredBundle bundle, Scheduler scheduler) throws SchedulerException {
+        Job job = delegate.newJob(bundle, scheduler);
+        Object policy = bundle.getJobDetail().getJobDataMap().get(CoalescePolicy.JOB_DATA_KEY);
+        if (policy == null) {
+            return job;
+        }
+        CoalescePolicy coalescePolicy = CoalescePolicy.valueOf(policy.toString());
+        Slot slot = slots.computeIfAbsent(bundle.getJobDetail().getKey(), jobKey -> new Slot());
+        return new CoalescingJob(job, slot, coalescePolicy);
+    }
+
+    /**
+     * 移除JobKey的执行状态，任务被删除时调用
+     *
+     * <p>正在执行或等待的触发继续使用原执行状态，之后的触发使用新的执行状态
+     *
+     * @param jobKey 任务JobKey
+     */
+    public void remove(JobKey jobKey) {
+        slots.remove(jobKey);
+    }
+
+    /**
+     * 按策略在当前线程中执行、等待或跳过本次触发
+     *
+     * @param slot    JobKey的执行状态
+     * @param policy  合并策略
+     * @param job     Job实例
+     * @param context 本次触发的任务上下文
+     * @throws JobExecutionException 本次触发执行时抛出的异常
+     */
+    private void execute(Slot slot, CoalescePolicy policy, Job job, JobExecutionContext context) throws JobExecutionException {
+        if (slot.running.compareAndSet(false, true)) {
+            this.runAndRelease(slot, job, context);
+            return;
+        }
+        Waiter waiter = new Waiter();
+        switch (policy) {
+            case QUEUE_AT_MOST_ONE:
+                if (!slot.waiter.compareAndSet(null, waiter)) {
+                    this.count(slot);
+                    return;
+                }
+                break;
+            case RUN_LATEST:
+                Waiter previous = slot.waiter.getAndSet(waiter);
+                if (previous != null && previous.state.compareAndSet(Waiter.WAITING, Waiter.SUPERSEDED)) {
+                    this.count(slot);
+                    LockSupport.unpark(previous.thread);
+                }
+                break;
+            default:
+                this.count(slot);
+                return;
+        }
+        //执行线程可能在放入等待前已经结束，此时按正常流程交给等待的触发
+        if (slot.running.compareAndSet(false, true)) {
+            this.release(slot);
+        }
+        while (waiter.state.get() == Waiter.WAITING) {
+            LockSupport.park(this);
+        }
+        if (waiter.state.get() == Waiter.GRANTED) {
+            this.runAndRelease(slot, job, context);
+        }
+    }
+
+    /**
+     * 执行本次触发，结束后将执行状态交给等待的触发
+     *
+     * @param slot    JobKey的执行状态
+     * @param job     Job实例
+     * @param context 本次触发的任务上下文
+     * @throws JobExecutionException 执行时抛出的异常
+     */
+    private void runAndRelease(Slot slot, Job job, JobExecutionContext context) throws JobExecutionException {
+        try {
+            job.execute(context);
+        } finally {
+            this.release(slot);
+        }
+    }
+
+    /**
+     * 释放执行状态，有等待的触发时直接交给该触发
+     *
+     * @param slot JobKey的执行状态
+     */
+    private void release(Slot slot) {
+        while (true) {
+            Waiter next = slot.waiter.get();
+            if (next != null) {
+                if (slot.waiter.compareAndSet(next, null) && next.state.compareAndSet(Waiter.WAITING, Waiter.GRANTED)) {
+                    LockSupport.unpark(next.thread);
+                    return;
+                }
+                continue;
+            }
+            slot.running.set(false);
+            if (slot.waiter.get() == null || !slot.running.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void count(Slot slot) {
+        slot.coalesced.increment();
+        coalesced.increment();
+    }
+
+    /**
+     * 获取实际创建Job实例的JobFactory
+     *
+     * @return JobFactory
+     */
+    public JobFactory getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 获取被合并的触发总数
+     *
+     * @return 触发数
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 获取某个JobKey被合并的触发数
+     *
+     * @param jobKey 任务JobKey
+     * @return 触发数
+     */
+    public long getCoalescedCount(JobKey jobKey) {
+        Slot slot = slots.get(jobKey);
+        return slot == null ? 0 : slot.coalesced.sum();
+    }
+
+    /**
+     * 获取各JobKey被合并的触发数
+     *
+     * @return JobKey与触发数的映射
+     */
+    public Map<JobKey, Long> getCoalescedCounts() {
+        Map<JobKey, Long> counts = new HashMap<>();
+        for (Map.Entry<JobKey, Slot> entry : slots.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().coalesced.sum());
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * 按合并策略执行的Job
+     */
+    private final class CoalescingJob implements InterruptableJob {
+
+        private final Job job;
+
+        private final Slot slot;
+
+        private final CoalescePolicy policy;
+
+        CoalescingJob(Job job, Slot slot, CoalescePolicy policy) {
+            this.job = job;
+            this.slot = slot;
+            this.policy = policy;
+        }
+
+        @Override
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            CoalescingJobFactory.this.execute(slot, policy, job, context);
+        }
+
+        @Override
+        public void interrupt() throws UnableToInterruptJobException {
+            if (!(job instanceof InterruptableJob)) {
+                throw new UnableToInterruptJobException("Job " + job.getClass().getName() + " 未实现InterruptableJob，不能被中断");
+            }
+            ((InterruptableJob) job).interrupt();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.utils.demo.Pool;
+
+import org.quartz.InterruptableJob;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.UnableToInterruptJobException;
+import org.quartz.spi.JobFactory;
+import org.quartz.spi.TriggerFiredBundle;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>按任务组分发执行的JobFactory
+ *
+ * <p>包装原有的JobFactory，为配置了GroupExecutor的组返回一个代理Job，在调度器工作线程中占用组执行器的执行许可后执行<br>
+ * 同一组同时执行的任务数不超过concurrency，同时占用的调度器工作线程数不超过concurrency与queueCapacity之和，
+ * 只有两者之和小于调度器线程数时，慢任务组才不会占满调度器线程池而挤占其他组，隔离程度取决于queueCapacity的大小<br>
+ * 任务在自己的工作线程中执行完毕后才返回，异常、中断、监听器及执行后保存JobDataMap等处理与未分组时相同<br>
+ * 组执行器已满时任务以JobExecutionException结束，由监听器记录
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class GroupDispatchJobFactory implements JobFactory {
+
+    /**
+     * 实际创建Job实例的JobFactory
+     */
+    private final JobFactory delegate;
+
+    /**
+     * 任务组名与组执行器的映射
+     */
+    private final Map<String, GroupExecutor> executors = new ConcurrentHashMap<>();
+
+    /**
+     * 创建按任务组分发执行的JobFactory
+     *
+     * @param delegate 实际创建Job实例的JobFactory
+     */
+    public GroupDispatchJobFactory(JobFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * 获取实际创建Job实例的JobFactory
+     *
+     * @return JobFactory
+     */
+    public JobFactory getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 设置任务组的执行器
+     *
+     * @param executor 组执行器
+     * @return 被替换的执行器，没有时返回null
+     */
+    public GroupExecutor putExecutor(GroupExecutor executor) {
+        return executors.put(executor.getGroup(), executor);
+    }
+
+    /**
+     * 移除任务组的执行器，该组之后的任务回到调度器线程池中执行
+     *
+     * @param group 任务组名
+     * @return 被移除的执行器，没有时返回null
+     */
+    public GroupExecutor removeExecutor(String group) {
+        return executors.remove(group);
+    }
+
+    /**
+     * 获取所有组执行器
+     *
+     * @return 只读的任务组名与组执行器的映射
+     */
+    public Map<String, GroupExecutor> getExecutors() {
+        return Collections.unmodifiableMap(executors);
+    }
+
+    @Override
+    public Job newJob(TriggerFiredBundle bundle, Scheduler scheduler) throws SchedulerException {
+        Job job = delegate.newJob(bundle, scheduler);
+        GroupExecutor executor = executors.get(bundle.getJobDetail().getKey().getGroup());
+        return executor == null ? job : new DispatchedJob(job, executor);
+    }
+
+    /**
+     * 受组执行器限制的Job
+     *
+     * <p>在调度器工作线程中执行，Job执行结束后工作线程才返回，调度器的监听器、完成处理及中断都作用于实际的执行
+     */
+    private static final class DispatchedJob implements InterruptableJob {
+
+        private final Job job;
+
+        private final GroupExecutor executor;
+
+        DispatchedJob(Job job, GroupExecutor executor) {
+            this.job = job;
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            try {
+                executor.call(() -> {
+                    job.execute(context);
+                    return null;
+                });
+            } catch (JobExecutionException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new JobExecutionException(e);
+            }
+        }
+
+        @Override
+        public void interrupt() throws UnableToInterruptJobException {
+            if (!(job instanceof InterruptableJob)) {
+                throw new UnableToInterruptJobException("Job " + job.getClass().getName() + " 未实现InterruptableJob，不能被中断");
+            }
+            ((InterruptableJob) job).interrupt();
+        }
+    }
+}
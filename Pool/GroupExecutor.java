@@ -0,0 +1,209 @@
+package com.utils.demo.Pool;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>任务组执行器
+ *
+ * <p>限制一个JobKey组的并发，任务通过call()在调用线程(调度器工作线程)中执行，不使用独立的线程<br>
+ * 同时执行的任务数不超过concurrency，等待执行许可的任务数不超过queueCapacity，超出上限时立即以RejectedExecutionException失败<br>
+ * 等待中的任务同样占用调度器工作线程，concurrency与queueCapacity之和小于调度器线程数时才能为其他组留出线程
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class GroupExecutor {
+
+    /**
+     * 任务组名
+     */
+    private final String group;
+
+    /**
+     * 同时执行的任务数上限
+     */
+    private final int concurrency;
+
+    /**
+     * 等待执行的任务数上限
+     */
+    private final int queueCapacity;
+
+    /**
+     * 同时执行的任务数限制
+     */
+    private final Semaphore running;
+
+    /**
+     * 等待及正在执行的任务数限制
+     */
+    private final Semaphore admitted;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger maxQueued = new AtomicInteger();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 是否已关闭
+     */
+    private volatile boolean shutdown;
+
+    private GroupExecutor(String group, int concurrency, int queueCapacity) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency必须大于0");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queueCapacity不能小于0");
+        }
+        this.group = group;
+        this.concurrency = concurrency;
+        this.queueCapacity = queueCapacity;
+        this.admitted = new Semaphore(concurrency + queueCapacity);
+        this.running = new Semaphore(concurrency);
+    }
+
+    /**
+     * 创建任务组执行器
+     *
+     * @param group         任务组名
+     * @param concurrency   同时执行的任务数上限
+     * @param queueCapacity 等待执行许可的任务数上限
+     * @return 任务组执行器
+     */
+    public static GroupExecutor of(String group, int concurrency, int queueCapacity) {
+        return new GroupExecutor(group, concurrency, queueCapacity);
+    }
+
+    /**
+     * 在调用线程中执行任务，与提交到执行器的任务共用同时执行数及等待数上限
+     *
+     * <p>等待执行的任务数达到上限或已关闭时立即拒绝，否则在调用线程中等待执行许可后执行
+     *
+     * @param task 任务
+     * @param <T>  任务结果类型
+     * @return 任务结果
+     * @throws RejectedExecutionException 等待执行的任务数达到上限或执行器已关闭
+     * @throws Exception                  任务抛出的异常
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        if (shutdown || !admitted.tryAcquire()) {
+            rejected.increment();
+            throw new RejectedExecutionException("任务组" + group + "等待执行的任务数已达上限或执行器已关闭");
+        }
+        int depth = queued.incrementAndGet();
+        maxQueued.accumulateAndGet(depth, Math::max);
+        try {
+            running.acquireUninterruptibly();
+            try {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    return task.call();
+                } finally {
+                    active.decrementAndGet();
+                    completed.increment();
+                }
+            } finally {
+                running.release();
+            }
+        } finally {
+            admitted.release();
+        }
+    }
+
+    /**
+     * 获取任务组名
+     *
+     * @return 任务组名
+     */
+    public String getGroup() {
+        return group;
+    }
+
+    /**
+     * 获取同时执行的任务数上限
+     *
+     * @return 任务数上限
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * 获取等待执行的任务数上限
+     *
+     * @return 任务数上限
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * 获取等待执行的任务数
+     *
+     * @return 队列深度
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * 获取等待执行的任务数的历史最大值
+     *
+     * @return 最大队列深度
+     */
+    public int getMaxQueuedCount() {
+        return maxQueued.get();
+    }
+
+    /**
+     * 获取正在执行的任务数
+     *
+     * @return 任务数
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * 获取已执行完毕的任务数
+     *
+     * @return 任务数
+     */
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * 获取被拒绝的任务数
+     *
+     * @return 任务数
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 关闭执行器，之后的任务被拒绝，已在执行或等待许可的任务继续执行
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupExecutor{group=" + group + ", active=" + active.get() + "/" + concurrency
+                + ", queued=" + queued.get() + "/" + queueCapacity
+                + ", completed=" + completed.sum() + ", rejected=" + rejected.sum() + "}";
+    }
+}
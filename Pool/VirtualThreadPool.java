@@ -0,0 +1,324 @@
+package com.utils.demo.Pool;
+
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>使用虚拟线程的调度器线程池
+ *
+ * <p>每次触发都在新的虚拟线程中执行，同时执行的任务数由信号量限制为maxConcurrency，适合大量阻塞在I/O上的短任务<br>
+ * 运行在JDK 21以下版本时退回到按需创建的平台线程，并发上限不变<br>
+ * 在quartz配置中使用
+ * <pre>
+ * org.quartz.threadPool.class = com.utils.demo.Pool.VirtualThreadPool
+ * org.quartz.threadPool.maxConcurrency = 1000
+ * </pre>
+ * 同时接受SimpleThreadPool的配置项，只替换org.quartz.threadPool.class时原有配置仍然有效：
+ * threadCount在未设置maxConcurrency时作为任务数上限，threadPriority、makeThreadsDaemons只作用于平台线程，
+ * threadsInheritContextClassLoaderOfInitializingThread使任务在初始化线程的上下文类加载器下执行，
+ * threadsInheritGroupOfInitializingThread被忽略
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class VirtualThreadPool implements ThreadPool {
+
+    /**
+     * 默认的同时执行任务数上限
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 1000;
+
+    /**
+     * 同时执行的任务数上限
+     */
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+    /**
+     * 是否显式设置了maxConcurrency
+     */
+    private boolean maxConcurrencySet;
+
+    /**
+     * SimpleThreadPool的线程数，未设置maxConcurrency时作为任务数上限
+     */
+    private int threadCount = -1;
+
+    /**
+     * 平台线程的优先级
+     */
+    private int threadPriority = Thread.NORM_PRIORITY;
+
+    /**
+     * 平台线程是否为守护线程
+     */
+    private boolean makeThreadsDaemons = true;
+
+    /**
+     * 是否在初始化线程的上下文类加载器下执行任务
+     */
+    private boolean inheritContextClassLoader;
+
+    /**
+     * 初始化线程的上下文类加载器，inheritContextClassLoader为false时为null
+     */
+    private ClassLoader contextClassLoader;
+
+    /**
+     * 线程名前缀，为空时使用调度器名
+     */
+    private String threadNamePrefix;
+
+    private String schedulerName = "QuartzScheduler";
+
+    private Semaphore permits;
+
+    private ExecutorService executor;
+
+    private boolean virtual;
+
+    private volatile boolean shutdown;
+
+    /**
+     * 设置同时执行的任务数上限，对应配置项org.quartz.threadPool.maxConcurrency
+     *
+     * @param maxConcurrency 任务数上限
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencySet = true;
+    }
+
+    /**
+     * 设置线程数，对应SimpleThreadPool的配置项org.quartz.threadPool.threadCount，未设置maxConcurrency时作为任务数上限
+     *
+     * @param threadCount 线程数
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * 设置线程优先级，对应配置项org.quartz.threadPool.threadPriority，虚拟线程的优先级固定，只作用于平台线程
+     *
+     * @param threadPriority 线程优先级
+     */
+    public void setThreadPriority(int threadPriority) {
+        this.threadPriority = threadPriority;
+    }
+
+    /**
+     * 设置是否为守护线程，对应配置项org.quartz.threadPool.makeThreadsDaemons，虚拟线程总是守护线程，只作用于平台线程
+     *
+     * @param makeThreadsDaemons 是否为守护线程
+     */
+    public void setMakeThreadsDaemons(boolean makeThreadsDaemons) {
+        this.makeThreadsDaemons = makeThreadsDaemons;
+    }
+
+    /**
+     * 设置是否在初始化线程的上下文类加载器下执行任务，
+     * 对应配置项org.quartz.threadPool.threadsInheritContextClassLoaderOfInitializingThread
+     *
+     * @param inheritContextClassLoader 是否继承上下文类加载器
+     */
+    public void setThreadsInheritContextClassLoaderOfInitializingThread(boolean inheritContextClassLoader) {
+        this.inheritContextClassLoader = inheritContextClassLoader;
+    }
+
+    /**
+     * 对应配置项org.quartz.threadPool.threadsInheritGroupOfInitializingThread，虚拟线程没有可设置的线程组，此配置被忽略
+     *
+     * @param inheritGroup 是否继承线程组
+     */
+    public void setThreadsInheritGroupOfInitializingThread(boolean inheritGroup) {
+    }
+
+    /**
+     * 获取同时执行的任务数上限
+     *
+     * @return 任务数上限
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * 设置线程名前缀，对应配置项org.quartz.threadPool.threadNamePrefix
+     *
+     * @param threadNamePrefix 线程名前缀
+     */
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    /**
+     * 是否正在使用虚拟线程
+     *
+     * @return 当前JDK支持虚拟线程时为true
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 获取正在执行的任务数
+     *
+     * @return 任务数
+     */
+    public int getActiveCount() {
+        return permits == null ? 0 : maxConcurrency - permits.availablePermits();
+    }
+
+    @Override
+    public void initialize() throws SchedulerConfigException {
+        if (!maxConcurrencySet && threadCount > 0) {
+            maxConcurrency = threadCount;
+        }
+        if (maxConcurrency <= 0) {
+            throw new SchedulerConfigException("maxConcurrency必须大于0");
+        }
+        if (threadPriority < Thread.MIN_PRIORITY || threadPriority > Thread.MAX_PRIORITY) {
+            throw new SchedulerConfigException("threadPriority必须在1到10之间");
+        }
+        contextClassLoader = inheritContextClassLoader ? Thread.currentThread().getContextClassLoader() : null;
+        String prefix = (threadNamePrefix == null ? schedulerName + "_Virtual" : threadNamePrefix) + "-";
+        permits = new Semaphore(maxConcurrency);
+        ThreadFactory threadFactory = virtualThreadFactory(prefix);
+        virtual = threadFactory != null;
+        executor = virtual
+                ? threadPerTaskExecutor(threadFactory)
+                : Executors.newCachedThreadPool(platformThreadFactory(prefix, threadPriority, makeThreadsDaemons));
+    }
+
+    @Override
+    public boolean runInThread(Runnable runnable) {
+        if (runnable == null || shutdown) {
+            return false;
+        }
+        permits.acquireUninterruptibly();
+        if (shutdown) {
+            permits.release();
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (contextClassLoader != null) {
+                        Thread.currentThread().setContextClassLoader(contextClassLoader);
+                    }
+                    runnable.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int blockForAvailableThreads() {
+        while (!shutdown) {
+            try {
+                if (permits.tryAcquire(500, TimeUnit.MILLISECONDS)) {
+                    int available = permits.availablePermits() + 1;
+                    permits.release();
+                    return available;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void shutdown(boolean waitForJobsToComplete) {
+        shutdown = true;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (waitForJobsToComplete) {
+            permits.acquireUninterruptibly(maxConcurrency);
+            permits.release(maxConcurrency);
+        }
+    }
+
+    @Override
+    public int getPoolSize() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void setInstanceId(String schedInstId) {
+    }
+
+    @Override
+    public void setInstanceName(String schedName) {
+        this.schedulerName = schedName;
+    }
+
+    /**
+     * 通过反射创建虚拟线程工厂
+     *
+     * @param prefix 线程名前缀
+     * @return 虚拟线程工厂，当前JDK不支持虚拟线程时返回null
+     */
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            Method factory = builderClass.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 通过反射创建每个任务一个线程的线程池
+     *
+     * @param threadFactory 线程工厂
+     * @return 线程池
+     */
+    private static ExecutorService threadPerTaskExecutor(ThreadFactory threadFactory) {
+        try {
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(threadFactory);
+        }
+    }
+
+    /**
+     * 创建带名称前缀的平台线程工厂
+     *
+     * @param prefix   线程名前缀
+     * @param priority 线程优先级
+     * @param daemon   是否为守护线程
+     * @return 平台线程工厂
+     */
+    private static ThreadFactory platformThreadFactory(String prefix, int priority, boolean daemon) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.getAndIncrement());
+            thread.setDaemon(daemon);
+            thread.setPriority(priority);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,354 @@
+package com.utils.demo.utils;
+
+import com.utils.demo.Pool.VirtualThreadPool;
+import com.utils.demo.Store.WriteBehindJobStore;
+import org.quartz.SchedulerException;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.jdbcjobstore.JobStoreTX;
+import org.quartz.impl.jdbcjobstore.StdJDBCDelegate;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.simpl.SimpleThreadPool;
+import org.quartz.spi.JobFactory;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>调度管理器构建器
+ *
+ * <p>通过类型化的选项创建独立配置的调度器，不依赖全局的quartz.properties<br>
+ * 每个构建器创建的调度器名默认唯一，同一JVM中可以同时存在多个配置不同的调度管理器<br>
+ * 可以先选择性能预设，再覆盖其中的单项配置
+ * <pre>
+ * QuartzManagerUtil quartzManagerUtil = QuartzManagerUtil.builder()
+ *         .preset(QuartzManagerBuilder.Preset.HIGH_THROUGHPUT)
+ *         .threadCount(32)
+ *         .build();
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class QuartzManagerBuilder {
+
+    /**
+     * 未指定调度器名时使用的序号
+     */
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    /**
+     * 性能预设
+     */
+    public enum Preset {
+
+        /**
+         * 低延迟：每次只获取一个触发器，不提前获取，线程数为CPU核数的两倍，较短的misfire阈值
+         */
+        LOW_LATENCY,
+
+        /**
+         * 高吞吐：线程数为CPU核数的四倍，每次最多获取与线程数相同的触发器并提前1秒获取，较长的misfire阈值
+         */
+        HIGH_THROUGHPUT,
+
+        /**
+         * 低内存：两个工作线程，空闲时较长的轮询间隔
+         */
+        LOW_MEMORY
+    }
+
+    private final Properties properties = new Properties();
+
+    private String schedulerName;
+
+    /**
+     * 当前线程池同时执行的任务数，SimpleThreadPool为线程数，VirtualThreadPool为maxConcurrency
+     */
+    private int concurrency = 10;
+
+    private int maxConnections = -1;
+
+    private JobFactory jobFactory;
+
+    QuartzManagerBuilder() {
+        schedulerName = "QuartzManager_" + SEQUENCE.getAndIncrement();
+        properties.setProperty("org.quartz.scheduler.skipUpdateCheck", "true");
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, RAMJobStore.class.getName());
+        this.threadCount(concurrency);
+    }
+
+    /**
+     * 应用性能预设，之后设置的单项配置会覆盖预设值
+     *
+     * @param preset 性能预设
+     * @return 构建器
+     */
+    public QuartzManagerBuilder preset(Preset preset) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        switch (preset) {
+            case LOW_LATENCY:
+                this.threadCount(processors * 2)
+                        .batchTriggerAcquisitionMaxCount(1)
+                        .batchTriggerAcquisitionFireAheadTimeWindow(0)
+                        .misfireThreshold(5000);
+                break;
+            case HIGH_THROUGHPUT:
+                this.threadCount(processors * 4)
+                        .batchTriggerAcquisitionMaxCount(processors * 4)
+                        .batchTriggerAcquisitionFireAheadTimeWindow(1000)
+                        .misfireThreshold(60000);
+                break;
+            case LOW_MEMORY:
+                this.threadCount(2)
+                        .batchTriggerAcquisitionMaxCount(1)
+                        .batchTriggerAcquisitionFireAheadTimeWindow(0)
+                        .idleWaitTime(30000)
+                        .misfireThreshold(60000);
+                break;
+            default:
+                break;
+        }
+        return this;
+    }
+
+    /**
+     * 设置调度器名，同名的调度器在同一JVM中只会创建一次，未设置时自动生成唯一的名称
+     *
+     * @param schedulerName 调度器名
+     * @return 构建器
+     */
+    public QuartzManagerBuilder schedulerName(String schedulerName) {
+        this.schedulerName = schedulerName;
+        return this;
+    }
+
+    /**
+     * 使用SimpleThreadPool并设置线程数
+     *
+     * @param threadCount 线程数
+     * @return 构建器
+     */
+    public QuartzManagerBuilder threadCount(int threadCount) {
+        this.concurrency = threadCount;
+        properties.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_CLASS, SimpleThreadPool.class.getName());
+        properties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(threadCount));
+        properties.remove("org.quartz.threadPool.maxConcurrency");
+        return this;
+    }
+
+    /**
+     * 使用VirtualThreadPool并设置同时执行的任务数上限
+     *
+     * @param maxConcurrency 任务数上限
+     * @return 构建器
+     */
+    public QuartzManagerBuilder virtualThreads(int maxConcurrency) {
+        this.concurrency = maxConcurrency;
+        properties.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_CLASS, VirtualThreadPool.class.getName());
+        properties.setProperty("org.quartz.threadPool.maxConcurrency", String.valueOf(maxConcurrency));
+        properties.remove("org.quartz.threadPool.threadCount");
+        return this;
+    }
+
+    /**
+     * 设置每次获取的触发器数量上限
+     *
+     * @param maxCount 数量上限
+     * @return 构建器
+     */
+    public QuartzManagerBuilder batchTriggerAcquisitionMaxCount(int maxCount) {
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_MAX_BATCH_SIZE, String.valueOf(maxCount));
+        return this;
+    }
+
+    /**
+     * 设置提前获取触发器的时间窗口
+     *
+     * @param millis 时间窗口(毫秒)
+     * @return 构建器
+     */
+    public QuartzManagerBuilder batchTriggerAcquisitionFireAheadTimeWindow(long millis) {
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_BATCH_TIME_WINDOW, String.valueOf(millis));
+        return this;
+    }
+
+    /**
+     * 设置没有触发器时的轮询间隔，不能小于1000毫秒
+     *
+     * @param millis 轮询间隔(毫秒)
+     * @return 构建器
+     */
+    public QuartzManagerBuilder idleWaitTime(long millis) {
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_IDLE_WAIT_TIME, String.valueOf(millis));
+        return this;
+    }
+
+    /**
+     * 设置misfire阈值，触发器超过该时间仍未执行时按misfire处理
+     *
+     * @param millis misfire阈值(毫秒)
+     * @return 构建器
+     */
+    public QuartzManagerBuilder misfireThreshold(long millis) {
+        properties.setProperty("org.quartz.jobStore.misfireThreshold", String.valueOf(millis));
+        return this;
+    }
+
+    /**
+     * 设置JDBC JobStore每次事务中处理的misfire触发器数量上限，默认为20
+     *
+     * <p>停机后大量触发器错过触发时，较小的值使misfire处理分为更多的短事务，减少对数据库锁的占用<br>
+     * 只能用于JDBC JobStore，RAMJobStore没有此配置项
+     *
+     * @param maxCount 每次处理的数量上限
+     * @return 构建器
+     */
+    public QuartzManagerBuilder maxMisfiresToHandleAtATime(int maxCount) {
+        properties.setProperty("org.quartz.jobStore.maxMisfiresToHandleAtATime", String.valueOf(maxCount));
+        return this;
+    }
+
+    /**
+     * 使用RAMJobStore
+     *
+     * @return 构建器
+     */
+    public QuartzManagerBuilder ramJobStore() {
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, RAMJobStore.class.getName());
+        return this;
+    }
+
+    /**
+     * 使用WriteBehindJobStore，触发器在内存中获取及触发，修改异步追加到本地日志文件，创建调度器时重放日志恢复
+     *
+     * @param logFile 日志文件路径
+     * @return 构建器
+     */
+    public QuartzManagerBuilder writeBehindJobStore(String logFile) {
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, WriteBehindJobStore.class.getName());
+        properties.setProperty("org.quartz.jobStore.logFile", logFile);
+        return this;
+    }
+
+    /**
+     * 使用JobStoreTX及c3p0连接池
+     *
+     * @param driver   数据库驱动类名
+     * @param url      数据库连接地址
+     * @param user     用户名
+     * @param password 密码
+     * @return 构建器
+     */
+    public QuartzManagerBuilder jdbcJobStore(String driver, String url, String user, String password) {
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, JobStoreTX.class.getName());
+        properties.setProperty("org.quartz.jobStore.driverDelegateClass", StdJDBCDelegate.class.getName());
+        properties.setProperty("org.quartz.dataSource.quartzDataSource.driver", driver);
+        properties.setProperty("org.quartz.dataSource.quartzDataSource.URL", url);
+        properties.setProperty("org.quartz.dataSource.quartzDataSource.user", user);
+        properties.setProperty("org.quartz.dataSource.quartzDataSource.password", password);
+        return this;
+    }
+
+    /**
+     * 设置JDBC驱动代理类，默认为StdJDBCDelegate
+     *
+     * @param driverDelegateClass 驱动代理类名
+     * @return 构建器
+     */
+    public QuartzManagerBuilder driverDelegateClass(String driverDelegateClass) {
+        properties.setProperty("org.quartz.jobStore.driverDelegateClass", driverDelegateClass);
+        return this;
+    }
+
+    /**
+     * 设置数据库表前缀，默认为QRTZ_
+     *
+     * @param tablePrefix 表前缀
+     * @return 构建器
+     */
+    public QuartzManagerBuilder tablePrefix(String tablePrefix) {
+        properties.setProperty("org.quartz.jobStore.tablePrefix", tablePrefix);
+        return this;
+    }
+
+    /**
+     * 设置c3p0连接池的最大连接数，默认为线程池同时执行的任务数(threadCount或virtualThreads的maxConcurrency)加2<br>
+     * 虚拟线程的并发上限较大时应显式设置，使连接数不超过数据库允许的上限
+     *
+     * @param maxConnections 最大连接数
+     * @return 构建器
+     */
+    public QuartzManagerBuilder maxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    /**
+     * 设置实际创建Job实例的JobFactory，例如Spring的JobFactory，组执行器及合并策略包装此JobFactory
+     *
+     * @param jobFactory JobFactory
+     * @return 构建器
+     */
+    public QuartzManagerBuilder jobFactory(JobFactory jobFactory) {
+        this.jobFactory = jobFactory;
+        return this;
+    }
+
+    /**
+     * 设置其他quartz配置项
+     *
+     * @param name  配置项名
+     * @param value 配置项值
+     * @return 构建器
+     */
+    public QuartzManagerBuilder property(String name, String value) {
+        properties.setProperty(name, value);
+        return this;
+    }
+
+    /**
+     * 生成quartz配置
+     *
+     * <p>JDBC数据源以调度器名命名，避免多个调度器共用全局的DBConnectionManager中的同一数据源
+     *
+     * @return quartz配置
+     */
+    public Properties toProperties() {
+        Properties result = new Properties();
+        String dataSource = schedulerName + "DataSource";
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+            if (key.startsWith("org.quartz.dataSource.quartzDataSource.")) {
+                key = "org.quartz.dataSource." + dataSource + key.substring("org.quartz.dataSource.quartzDataSource".length());
+            }
+            result.setProperty(key, value);
+        }
+        result.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, schedulerName);
+        if (JobStoreTX.class.getName().equals(result.getProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS))) {
+            result.setProperty("org.quartz.jobStore.dataSource", dataSource);
+            int connections = maxConnections > 0 ? maxConnections : concurrency + 2;
+            result.setProperty("org.quartz.dataSource." + dataSource + ".maxConnections", String.valueOf(connections));
+        }
+        return result;
+    }
+
+    /**
+     * 按当前配置创建调度器及调度管理器
+     *
+     * @return 调度管理器
+     * @throws Exception 自定义异常
+     */
+    public QuartzManagerUtil build() throws Exception {
+        QuartzManagerUtil quartzManagerUtil;
+        try {
+            quartzManagerUtil = new QuartzManagerUtil(new StdSchedulerFactory(this.toProperties()).getScheduler());
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("按配置创建调度器失败");
+        }
+        if (jobFactory != null) {
+            quartzManagerUtil.setJobFactory(jobFactory);
+        }
+        return quartzManagerUtil;
+    }
+}
@@ -1,12 +1,46 @@
 package com.utils.demo.utils;
 
+import com.utils.demo.Audit.JdbcAuditSink;
+import com.utils.demo.History.ExecutionHistoryStore;
+import com.utils.demo.Listener.AuditJobListener;
+import com.utils.demo.Listener.AuditTriggerListener;
+import com.utils.demo.Listener.CatchUpTriggerListener;
+import com.utils.demo.Listener.HistoryJobListener;
+import com.utils.demo.Listener.HistoryTriggerListener;
+import com.utils.demo.Pool.CoalescePolicy;
+import com.utils.demo.Pool.CoalescingJobFactory;
+import com.utils.demo.Pool.GroupDispatchJobFactory;
+import com.utils.demo.Pool.GroupExecutor;
 import org.quartz.*;
 import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.simpl.PropertySettingJobFactory;
+import org.quartz.spi.JobFactory;
+import org.quartz.impl.matchers.EverythingMatcher;
 import org.quartz.impl.matchers.GroupMatcher;
-import org.quartz.impl.matchers.KeyMatcher;
+import org.quartz.listeners.SchedulerListenerSupport;
+import org.quartz.utils.Key;
 
+import java.sql.SQLException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.quartz.CronScheduleBuilder.cronSchedule;
 
@@ -23,19 +57,95 @@ import static org.quartz.CronScheduleBuilder.cronSchedule;
 public final class QuartzManagerUtil {
 
     /**
-     * 调度管理器实例使用的调度器
+     * 批量操作时每个事务包含的任务数
      */
-    private static Scheduler scheduler;
+    private static final int BATCH_SIZE = 500;
 
-    /*
-     * 初始化实例时导入默认调度器
+    /**
+     * 已解析的cron表达式缓存
      */
-    static {
-        try {
-            scheduler = StdSchedulerFactory.getDefaultScheduler();
-        } catch (SchedulerException e) {
-            e.printStackTrace();
-        }
+    private static final CronExpressionCache CRON_CACHE = new CronExpressionCache(1024);
+
+    /**
+     * 调度管理器实例使用的调度器，首次使用时才创建
+     */
+    private volatile Scheduler scheduler;
+
+    /**
+     * 已安装JobFactory的调度器，与scheduler不同时在getScheduler中安装
+     */
+    private volatile Scheduler jobFactoryScheduler;
+
+    /**
+     * 各启动阶段的耗时(毫秒)
+     */
+    private final Map<String, Long> startupTimings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * 调度器Key索引缓存，为null时直接查询JobStore
+     */
+    private volatile SchedulerIndex schedulerIndex;
+
+    /**
+     * 触发时间预测索引，为null时未启用
+     */
+    private volatile FireTimeForecast fireTimeForecast;
+
+    /**
+     * cron触发时间错开，为null时不错开
+     */
+    private volatile CronStagger cronStagger;
+
+    /**
+     * createTrigger未指定misfire策略时使用的策略
+     */
+    private volatile MisfirePolicy defaultMisfirePolicy = MisfirePolicy.SMART;
+
+    /**
+     * 触发器组名与createTrigger创建的触发器优先级的映射
+     */
+    private final Map<String, Integer> triggerGroupPriorities = new ConcurrentHashMap<>();
+
+    /**
+     * JDBC批量审计输出，为null时未启用，关闭调度器时写出剩余记录
+     */
+    private volatile JdbcAuditSink auditSink;
+
+    /**
+     * 各调度器的监听器注册表，每个监听类只注册一个实例，共用同一调度器的管理器实例共用同一注册表<br>
+     * 注册表持有调度器的引用，在shutdownScheduler中移除
+     */
+    private static final Map<Scheduler, ListenerRegistry> LISTENER_REGISTRIES = new WeakHashMap<>();
+
+    /**
+     * 各调度器按任务组分发执行的JobFactory
+     */
+    private static final Map<Scheduler, GroupDispatchJobFactory> JOB_FACTORIES = new WeakHashMap<>();
+
+    /**
+     * 使用默认调度器初始化实例，默认调度器在首次使用时才创建
+     *
+     * <p>只创建JobDetail及Trigger实例时不会创建线程池、JobStore及连接池
+     */
+    public QuartzManagerUtil() {
+    }
+
+    /**
+     * 使用指定的调度器初始化实例
+     *
+     * @param scheduler 调度管理器实例使用的调度器
+     */
+    public QuartzManagerUtil(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 创建调度管理器构建器，通过类型化的选项及性能预设创建独立配置的调度器
+     *
+     * @return 调度管理器构建器
+     */
+    public static QuartzManagerBuilder builder() {
+        return new QuartzManagerBuilder();
     }
 
     /**
@@ -45,15 +155,68 @@ public final class QuartzManagerUtil {
      * @throws Exception    自定义异常
      */
     public Scheduler getScheduler() throws Exception {
-        if (scheduler == null){
+        Scheduler current = scheduler;
+        if (current == null) {
+            synchronized (this) {
+                if (scheduler == null) {
+                    long begin = System.nanoTime();
+                    this.setScheduler();
+                    startupTimings.put("initialize", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+                }
+                current = scheduler;
+            }
+        }
+        if (jobFactoryScheduler != current) {
+            //调度器创建后立即安装JobFactory，重启后JobStore中已持久化的合并策略及组执行器在首次触发前生效
+            this.installedJobFactory(current);
+            jobFactoryScheduler = current;
+        }
+        return current;
+    }
+
+    /**
+     * 在后台线程中预热调度器，应用可以同时继续启动
+     *
+     * <p>依次创建调度器(线程池及JobStore)、读取JobStore(建立数据库连接池)，start为true时启动调度器<br>
+     * 启动时JobStore会恢复上次未完成的任务并处理misfire的触发器，因此恢复耗时记录在start阶段中
+     *
+     * @param start 预热完成后是否启动调度器
+     * @return 预热完成时以各阶段耗时(毫秒)完成的CompletableFuture
+     */
+    public CompletableFuture<Map<String, Long>> warmUp(boolean start) {
+        CompletableFuture<Map<String, Long>> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
             try {
-                this.setScheduler();
-            } catch (SchedulerException e) {
-                e.printStackTrace();
-                throw new Exception("调度器初始化失败");
+                Scheduler current = this.getScheduler();
+                long begin = System.nanoTime();
+                current.getJobGroupNames();
+                startupTimings.put("jobStore", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+                if (start) {
+                    begin = System.nanoTime();
+                    this.startScheduler();
+                    startupTimings.put("start", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+                }
+                future.complete(this.getStartupTimings());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
             }
+        }, "QuartzManagerWarmUp");
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    /**
+     * 获取各启动阶段的耗时
+     *
+     * <p>initialize为创建调度器的耗时，jobStore为首次读取JobStore的耗时，start为启动调度器(含恢复任务)的耗时
+     *
+     * @return 阶段名与耗时(毫秒)的映射
+     */
+    public Map<String, Long> getStartupTimings() {
+        synchronized (startupTimings) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(startupTimings));
         }
-        return scheduler;
     }
 
     /**
@@ -71,6 +234,23 @@ public final class QuartzManagerUtil {
         }
     }
 
+    /**
+     * 按指定配置创建调度器
+     *
+     * <p>例如将org.quartz.threadPool.class设置为com.utils.demo.Pool.VirtualThreadPool以在虚拟线程中执行任务
+     *
+     * @param properties quartz配置
+     * @throws Exception 自定义异常
+     */
+    public void setScheduler(Properties properties) throws Exception {
+        try {
+            scheduler = new StdSchedulerFactory(properties).getScheduler();
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("按配置创建调度器失败");
+        }
+    }
+
     /**
      * 创建JobDetail实例
      *
@@ -111,12 +291,45 @@ public final class QuartzManagerUtil {
      * @return 创建完成的Trigger实例
      */
     public Trigger createTrigger(TriggerKey triggerKey, String cron) {
+        return this.createTrigger(triggerKey, cron, defaultMisfirePolicy);
+    }
+
+    /**
+     * 创建指定misfire策略的Trigger实例
+     *
+     * <p>设置了触发器组优先级时同时设置触发器优先级，同一时刻需要触发的触发器中优先级高的先被获取
+     *
+     * @param triggerKey    触发器TriggerKey
+     * @param cron          触发器cron表达式
+     * @param misfirePolicy 错过触发时间后的处理策略
+     * @return 创建完成的Trigger实例
+     */
+    public Trigger createTrigger(TriggerKey triggerKey, String cron, MisfirePolicy misfirePolicy) {
         //创建TriggerBuilder实例
         TriggerBuilder<Trigger> triggerBuilder = TriggerBuilder.newTrigger()
                 .withIdentity(triggerKey)
                 .startNow();//从调度器启动开始运行，防止出现恢复时多次重复调用Job实例的错误
-        //导入cron表达式
-        triggerBuilder.withSchedule(cronSchedule(cron));
+        Integer priority = triggerGroupPriorities.get(triggerKey.getGroup());
+        if (priority != null) {
+            triggerBuilder.withPriority(priority);
+        }
+        //启用错开时改写cron表达式的秒及分钟字段
+        CronStagger stagger = cronStagger;
+        if (stagger != null) {
+            cron = stagger.apply(triggerKey, cron);
+            Integer offset = stagger.getOffset(triggerKey);
+            if (offset != null) {
+                triggerBuilder.usingJobData(CronStagger.JOB_DATA_KEY, String.valueOf(offset));
+            }
+        }
+        //从缓存中获取已解析的cron表达式并导入
+        CronExpression cronExpression;
+        try {
+            cronExpression = CRON_CACHE.get(cron);
+        } catch (ParseException e) {
+            throw new RuntimeException("CronExpression '" + cron + "' is invalid.", e);
+        }
+        triggerBuilder.withSchedule(misfirePolicy.applyTo(cronSchedule(cronExpression)));
         //创建Trigger实例
         return triggerBuilder.build();
     }
@@ -136,6 +349,103 @@ public final class QuartzManagerUtil {
         return this.createTrigger(triggerKey, cron);
     }
 
+    /**
+     * 创建指定misfire策略的Trigger实例
+     *
+     * @param name          触发器TriggerKey.name
+     * @param group         触发器TriggerKey.group
+     * @param cron          触发器cron表达式
+     * @param misfirePolicy 错过触发时间后的处理策略
+     * @return 创建完成的Trigger实例
+     */
+    public Trigger createTrigger(String name, String group, String cron, MisfirePolicy misfirePolicy) {
+        return this.createTrigger(new TriggerKey(name, group), cron, misfirePolicy);
+    }
+
+    /**
+     * 设置createTrigger未指定misfire策略时使用的策略，默认为SMART
+     *
+     * @param misfirePolicy 错过触发时间后的处理策略
+     */
+    public void setDefaultMisfirePolicy(MisfirePolicy misfirePolicy) {
+        defaultMisfirePolicy = misfirePolicy;
+    }
+
+    /**
+     * 设置触发器组的优先级，之后createTrigger创建的该组触发器使用此优先级
+     *
+     * <p>quartz默认优先级为5，下次触发时间相同的触发器中优先级高的先被获取并执行<br>
+     * 优先级只在下次触发时间相同时起作用，错过触发后立即补偿的触发器下次触发时间各为处理misfire时的当前时间，
+     * 相互之间按时间先后而不是优先级执行<br>
+     * 只对之后创建的触发器生效，已注册的触发器需要重新创建并updateTask
+     *
+     * @param triggerGroup 触发器组名
+     * @param priority     优先级
+     */
+    public void setTriggerGroupPriority(String triggerGroup, int priority) {
+        triggerGroupPriorities.put(triggerGroup, priority);
+    }
+
+    /**
+     * 移除触发器组的优先级，之后创建的该组触发器使用默认优先级
+     *
+     * @param triggerGroup 触发器组名
+     */
+    public void removeTriggerGroupPriority(String triggerGroup) {
+        triggerGroupPriorities.remove(triggerGroup);
+    }
+
+    /**
+     * 启用cron触发时间错开
+     *
+     * <p>启用后createTrigger及使用cron表达式的registerTask、updateTask在jitterSeconds秒的窗口内为每个触发器选择偏移量，
+     * 改写cron表达式的秒及分钟字段，使相同周期的触发器分散到不同的秒触发，周期保持不变<br>
+     * LEAST_LOADED方式下同一TriggerKey沿用已分配的偏移量，触发器被删除时释放，启用时从JobStore中已有的触发器恢复分配
+     *
+     * @param mode          错开方式，HASH按TriggerKey哈希，LEAST_LOADED选择已分配最少的偏移量
+     * @param jitterSeconds 错开窗口(秒)，最大3600
+     * @throws Exception 自定义异常
+     */
+    public void enableCronStagger(CronStagger.Mode mode, int jitterSeconds) throws Exception {
+        CronStagger stagger = new CronStagger(mode, jitterSeconds);
+        if (mode == CronStagger.Mode.LEAST_LOADED) {
+            Scheduler scheduler = this.getScheduler();
+            //先注册监听再恢复，避免恢复期间的修改丢失
+            scheduler.getListenerManager().addSchedulerListener(stagger);
+            try {
+                this.streamTriggers().forEach(snapshot -> stagger.jobScheduled(snapshot.getTrigger()));
+            } catch (IllegalStateException e) {
+                scheduler.getListenerManager().removeSchedulerListener(stagger);
+                e.printStackTrace();
+                throw new Exception("恢复cron错开偏移量失败");
+            }
+        }
+        this.disableCronStagger();
+        cronStagger = stagger;
+    }
+
+    /**
+     * 停用cron触发时间错开
+     *
+     * @throws Exception 自定义异常
+     */
+    public void disableCronStagger() throws Exception {
+        CronStagger stagger = cronStagger;
+        if (stagger != null) {
+            cronStagger = null;
+            this.getScheduler().getListenerManager().removeSchedulerListener(stagger);
+        }
+    }
+
+    /**
+     * 获取cron表达式缓存，可用于查看命中及未命中次数
+     *
+     * @return cron表达式缓存
+     */
+    public CronExpressionCache getCronExpressionCache() {
+        return CRON_CACHE;
+    }
+
     /**
      * 获取已经注册的任务中JobKey与传入的JobKey相同的触发器列表
      *
@@ -144,8 +454,12 @@ public final class QuartzManagerUtil {
      * @throws Exception 自定义异常
      */
     public List<? extends Trigger> getTriggersByJobKey(JobKey jobKey) throws Exception {
+        SchedulerIndex index = schedulerIndex;
+        if (index != null) {
+            return index.getTriggersOfJob(jobKey);
+        }
         try {
-            return scheduler.getTriggersOfJob(jobKey);
+            return this.getScheduler().getTriggersOfJob(jobKey);
         } catch (SchedulerException e) {
             e.printStackTrace();
             throw new Exception("获取触发器列表失败");
@@ -159,9 +473,13 @@ public final class QuartzManagerUtil {
      * @throws Exception 自定义异常
      */
     public Set<JobKey> getAllJobs() throws Exception {
+        SchedulerIndex index = schedulerIndex;
+        if (index != null) {
+            return index.getJobKeys();
+        }
         Set<JobKey> jobKeySet;
         try {
-            jobKeySet = scheduler.getJobKeys(GroupMatcher.anyGroup());
+            jobKeySet = this.getScheduler().getJobKeys(GroupMatcher.anyGroup());
         } catch (SchedulerException e) {
             e.printStackTrace();
             throw new Exception("获取Job集合失败");
@@ -177,9 +495,13 @@ public final class QuartzManagerUtil {
      * @throws Exception 自定义异常
      */
     public Set<TriggerKey> getAllTriggers() throws Exception {
+        SchedulerIndex index = schedulerIndex;
+        if (index != null) {
+            return index.getTriggerKeys();
+        }
         Set<TriggerKey> triggerKeySet;
         try {
-            triggerKeySet = scheduler.getTriggerKeys(GroupMatcher.anyTriggerGroup());
+            triggerKeySet = this.getScheduler().getTriggerKeys(GroupMatcher.anyTriggerGroup());
         } catch (SchedulerException e) {
             e.printStackTrace();
             throw new Exception("获取Trigger集合失败");
@@ -188,6 +510,307 @@ public final class QuartzManagerUtil {
         return triggerKeySet;
     }
 
+    /**
+     * 按任务组逐组读取所有Job对象的Key
+     *
+     * <p>流被消费时才逐个任务组查询，同一时刻只持有一个任务组的Key，不受索引缓存影响<br>
+     * 读取失败时在消费流的位置抛出IllegalStateException
+     *
+     * @return Stream<JobKey> 所有Job对象的Key
+     * @throws Exception 自定义异常
+     */
+    public Stream<JobKey> streamJobKeys() throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        List<String> groups;
+        try {
+            groups = scheduler.getJobGroupNames();
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("获取Job集合失败");
+        }
+        return groups.stream().flatMap(group -> {
+            try {
+                return scheduler.getJobKeys(GroupMatcher.jobGroupEquals(group)).stream();
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+                throw new IllegalStateException("获取Job集合失败", e);
+            }
+        });
+    }
+
+    /**
+     * 按触发器组逐组读取所有Trigger对象的Key
+     *
+     * <p>流被消费时才逐个触发器组查询，同一时刻只持有一个触发器组的Key，不受索引缓存影响<br>
+     * 读取失败时在消费流的位置抛出IllegalStateException
+     *
+     * @return Stream<TriggerKey> 所有Trigger对象的Key
+     * @throws Exception 自定义异常
+     */
+    public Stream<TriggerKey> streamTriggerKeys() throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        List<String> groups;
+        try {
+            groups = scheduler.getTriggerGroupNames();
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("获取Trigger集合失败");
+        }
+        return groups.stream().flatMap(group -> {
+            try {
+                return scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(group)).stream();
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+                throw new IllegalStateException("获取Trigger集合失败", e);
+            }
+        });
+    }
+
+    /**
+     * 按触发器组逐个读取所有触发器及其状态
+     *
+     * <p>每个触发器在流被消费到时才读取，遍历期间已被删除的触发器会被跳过
+     *
+     * @return Stream<TriggerSnapshot> 所有触发器及其状态
+     * @throws Exception 自定义异常
+     */
+    public Stream<TriggerSnapshot> streamTriggers() throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        return this.streamTriggerKeys().map(triggerKey -> {
+            try {
+                Trigger trigger = scheduler.getTrigger(triggerKey);
+                return trigger == null ? null : new TriggerSnapshot(trigger, scheduler.getTriggerState(triggerKey));
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+                throw new IllegalStateException("获取触发器失败", e);
+            }
+        }).filter(Objects::nonNull);
+    }
+
+    /**
+     * 启用调度器Key索引缓存
+     *
+     * <p>启用后getTriggersByJobKey、getAllJobs、getAllTriggers直接读取内存索引，不再查询JobStore<br>
+     * 索引通过调度器监听事件保持一致，集群环境下可设置过期时间定期重新加载
+     *
+     * @param ttlMillis 索引过期时间(毫秒)，小于等于0时不过期
+     * @throws Exception 自定义异常
+     */
+    public void enableIndexCache(long ttlMillis) throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        SchedulerIndex index = new SchedulerIndex(scheduler, ttlMillis);
+        try {
+            //先注册监听再加载，避免加载期间的修改丢失
+            scheduler.getListenerManager().addSchedulerListener(index);
+            index.refresh();
+        } catch (SchedulerException e) {
+            scheduler.getListenerManager().removeSchedulerListener(index);
+            e.printStackTrace();
+            throw new Exception("索引缓存初始化失败");
+        }
+        this.disableIndexCache();
+        schedulerIndex = index;
+    }
+
+    /**
+     * 停用调度器Key索引缓存
+     *
+     * @throws Exception 自定义异常
+     */
+    public void disableIndexCache() throws Exception {
+        SchedulerIndex index = schedulerIndex;
+        if (index != null) {
+            schedulerIndex = null;
+            this.getScheduler().getListenerManager().removeSchedulerListener(index);
+        }
+    }
+
+    /**
+     * 启用触发时间预测索引
+     *
+     * <p>启用后可通过getFireTimeForecast()查询未来一段时间内的预计触发次数及每秒峰值<br>
+     * 索引通过调度器监听事件增量更新
+     *
+     * @param horizonSeconds 预测窗口长度(秒)
+     * @throws Exception 自定义异常
+     */
+    public void enableFireTimeForecast(int horizonSeconds) throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        FireTimeForecast forecast = new FireTimeForecast(scheduler, horizonSeconds);
+        try {
+            //先注册监听再加载，避免加载期间的修改丢失
+            scheduler.getListenerManager().addSchedulerListener(forecast);
+            forecast.refresh();
+        } catch (SchedulerException e) {
+            scheduler.getListenerManager().removeSchedulerListener(forecast);
+            e.printStackTrace();
+            throw new Exception("触发时间预测索引初始化失败");
+        }
+        this.disableFireTimeForecast();
+        fireTimeForecast = forecast;
+    }
+
+    /**
+     * 停用触发时间预测索引
+     *
+     * @throws Exception 自定义异常
+     */
+    public void disableFireTimeForecast() throws Exception {
+        FireTimeForecast forecast = fireTimeForecast;
+        if (forecast != null) {
+            fireTimeForecast = null;
+            this.getScheduler().getListenerManager().removeSchedulerListener(forecast);
+        }
+    }
+
+    /**
+     * 获取触发时间预测索引
+     *
+     * @return 触发时间预测索引
+     * @throws Exception 未启用时抛出
+     */
+    public FireTimeForecast getFireTimeForecast() throws Exception {
+        FireTimeForecast forecast = fireTimeForecast;
+        if (forecast == null) {
+            throw new Exception("触发时间预测索引未启用");
+        }
+        return forecast;
+    }
+
+    /**
+     * 启用执行历史记录
+     *
+     * <p>安装执行历史存储，并为所有任务及触发器注册HistoryJobListener与HistoryTriggerListener<br>
+     * 每次执行的开始时间、耗时、执行结果、异常类名及错过触发写入存储，可通过ExecutionHistoryStore.query按JobKey及时间窗口查询
+     *
+     * @param store 执行历史存储
+     * @throws Exception 自定义异常
+     */
+    public void enableExecutionHistory(ExecutionHistoryStore store) throws Exception {
+        ExecutionHistoryStore.install(store);
+        try {
+            ListenerManager listenerManager = this.getScheduler().getListenerManager();
+            listenerManager.addJobListener(new HistoryJobListener(), EverythingMatcher.allJobs());
+            listenerManager.addTriggerListener(new HistoryTriggerListener(), EverythingMatcher.allTriggers());
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("执行历史监听注册失败");
+        }
+    }
+
+    /**
+     * 停用执行历史记录，存储不会被关闭
+     *
+     * @throws Exception 自定义异常
+     */
+    public void disableExecutionHistory() throws Exception {
+        try {
+            ListenerManager listenerManager = this.getScheduler().getListenerManager();
+            listenerManager.removeJobListener(new HistoryJobListener().getName());
+            listenerManager.removeTriggerListener(new HistoryTriggerListener().getName());
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("执行历史监听移除失败");
+        }
+        ExecutionHistoryStore.install(null);
+    }
+
+    /**
+     * 启用补偿触发限流
+     *
+     * <p>为所有触发器注册CatchUpTriggerListener，调度器暂停或停机后恢复时按令牌桶推迟补偿触发，分散执行而不丢弃，
+     * 同时注册为调度器监听以移除已删除触发器的待补偿记录<br>
+     * 错过触发次数、待补偿数量及被推迟的次数可从传入的监听器中获取
+     *
+     * @param listener 补偿触发限流监听器
+     * @throws Exception 自定义异常
+     */
+    public void enableCatchUpControl(CatchUpTriggerListener listener) throws Exception {
+        try {
+            ListenerManager listenerManager = this.getScheduler().getListenerManager();
+            listenerManager.addTriggerListener(listener, EverythingMatcher.allTriggers());
+            listenerManager.addSchedulerListener(listener);
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("补偿触发限流监听注册失败");
+        }
+    }
+
+    /**
+     * 停用补偿触发限流
+     *
+     * @throws Exception 自定义异常
+     */
+    public void disableCatchUpControl() throws Exception {
+        try {
+            ListenerManager listenerManager = this.getScheduler().getListenerManager();
+            TriggerListener listener = listenerManager.getTriggerListener("CatchUpTriggerListener");
+            listenerManager.removeTriggerListener("CatchUpTriggerListener");
+            if (listener instanceof SchedulerListener) {
+                listenerManager.removeSchedulerListener((SchedulerListener) listener);
+            }
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("补偿触发限流监听移除失败");
+        }
+    }
+
+    /**
+     * 启用JDBC批量审计
+     *
+     * <p>安装审计输出，并为所有任务及触发器注册AuditJobListener与AuditTriggerListener<br>
+     * 执行记录在内存中缓冲，由后台线程以JDBC批量插入写入，关闭调度器时写出剩余记录并关闭审计输出<br>
+     * 已启用审计时先写出并关闭之前的审计输出
+     *
+     * @param sink 审计输出
+     * @throws Exception 自定义异常
+     */
+    public void enableAudit(JdbcAuditSink sink) throws Exception {
+        if (auditSink != sink) {
+            this.closeAuditSink();
+        }
+        JdbcAuditSink.install(sink);
+        auditSink = sink;
+        try {
+            ListenerManager listenerManager = this.getScheduler().getListenerManager();
+            listenerManager.addJobListener(new AuditJobListener(), EverythingMatcher.allJobs());
+            listenerManager.addTriggerListener(new AuditTriggerListener(), EverythingMatcher.allTriggers());
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("审计监听注册失败");
+        }
+    }
+
+    /**
+     * 停用JDBC批量审计，写出剩余记录并关闭审计输出
+     *
+     * @throws Exception 自定义异常
+     */
+    public void disableAudit() throws Exception {
+        try {
+            ListenerManager listenerManager = this.getScheduler().getListenerManager();
+            listenerManager.removeJobListener(new AuditJobListener().getName());
+            listenerManager.removeTriggerListener(new AuditTriggerListener().getName());
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("审计监听移除失败");
+        }
+        this.closeAuditSink();
+    }
+
+    private void closeAuditSink() throws Exception {
+        JdbcAuditSink sink = auditSink;
+        if (sink != null) {
+            auditSink = null;
+            try {
+                sink.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                throw new Exception("审计输出关闭出现异常");
+            }
+        }
+    }
+
     /**
      * 向调度器中注册任务
      *
@@ -243,6 +866,47 @@ public final class QuartzManagerUtil {
         }
     }
 
+    /**
+     * 向调度器中注册任务，并设置同一JobKey重叠触发时的合并策略
+     *
+     * @param jobDetail      任务jobDetail实例
+     * @param trigger        触发器trigger实例
+     * @param coalescePolicy 上一次执行尚未结束时的合并策略
+     * @throws Exception 自定义异常
+     */
+    public void registerTask(JobDetail jobDetail, Trigger trigger, CoalescePolicy coalescePolicy) throws Exception {
+        this.registerTask(this.withCoalescePolicy(jobDetail, coalescePolicy), trigger);
+    }
+
+    /**
+     * 复制JobDetail并设置合并策略，返回的JobDetail可用于registerTask、registerTasks及updateTask
+     *
+     * <p>策略保存在JobDataMap中，使用JDBC存储时随任务持久化
+     *
+     * @param jobDetail      任务jobDetail实例
+     * @param coalescePolicy 上一次执行尚未结束时的合并策略
+     * @return 设置了合并策略的JobDetail
+     * @throws Exception 自定义异常
+     */
+    public JobDetail withCoalescePolicy(JobDetail jobDetail, CoalescePolicy coalescePolicy) throws Exception {
+        //确保调度器使用可以读取合并策略的JobFactory
+        this.getJobFactory();
+        return jobDetail.getJobBuilder()
+                .usingJobData(CoalescePolicy.JOB_DATA_KEY, coalescePolicy.name())
+                .build();
+    }
+
+    /**
+     * 获取某个Job因上一次执行尚未结束而被合并的触发数
+     *
+     * @param jobKey 任务JobKey
+     * @return 触发数
+     * @throws Exception 自定义异常
+     */
+    public long getCoalescedCount(JobKey jobKey) throws Exception {
+        return ((CoalescingJobFactory) this.getJobFactory().getDelegate()).getCoalescedCount(jobKey);
+    }
+
     /**
      * 向调度器中注册任务
      *
@@ -256,6 +920,19 @@ public final class QuartzManagerUtil {
         this.registerTask(jobDetail, trigger);
     }
 
+    /**
+     * 以指定misfire策略向调度器中注册任务
+     *
+     * @param jobDetail     任务jobDetail实例
+     * @param triggerKey    触发器triggerKey
+     * @param cron          触发表达式
+     * @param misfirePolicy 错过触发时间后的处理策略
+     * @throws Exception    自定义异常
+     */
+    public void registerTask(JobDetail jobDetail, TriggerKey triggerKey, String cron, MisfirePolicy misfirePolicy) throws Exception {
+        this.registerTask(jobDetail, this.createTrigger(triggerKey, cron, misfirePolicy));
+    }
+
     /**
      * 向调度器中注册任务
      *
@@ -361,6 +1038,130 @@ public final class QuartzManagerUtil {
         this.registerTask(jobDetail, trigger);
     }
 
+    /**
+     * 向调度器中批量注册任务
+     *
+     * <p>已注册的任务(JobKey已存在且TriggerKey属于该Job)会被重启，与registerTask相同<br>
+     * 未注册的触发器按BATCH_SIZE分批提交，每批在JobStore中为一次事务<br>
+     * 没有触发器的任务及已被其他Job使用的触发器记为失败
+     *
+     * @param tasks 任务JobDetail实例与其触发器集合的映射
+     * @return 批量注册结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport registerTasks(Map<JobDetail, Set<? extends Trigger>> tasks) throws Exception {
+        //获取调度管理器实例使用的调度器
+        Scheduler scheduler = this.getScheduler();
+        TaskReport report = new TaskReport();
+        //一次性获取已注册的Job与Trigger(避免逐个任务查询)
+        Set<JobKey> registeredJobKeys = this.getAllJobs();
+        Set<TriggerKey> registeredTriggerKeys = this.getAllTriggers();
+
+        Map<JobDetail, Set<? extends Trigger>> newJobs = new LinkedHashMap<>();
+        Map<JobDetail, Set<? extends Trigger>> registeredJobs = new LinkedHashMap<>();
+        Set<JobKey> resumeJobKeys = new LinkedHashSet<>();
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : tasks.entrySet()) {
+            JobKey jobKey = entry.getKey().getKey();
+            if (entry.getValue().isEmpty()) {
+                report.addFailed(jobKey, new Exception("任务没有触发器"));
+                continue;
+            }
+            boolean jobRegistered = registeredJobKeys.contains(jobKey);
+            Set<TriggerKey> ownTriggerKeys = null;
+            boolean lookupFailed = false;
+            Set<Trigger> newTriggers = new LinkedHashSet<>();
+            for (Trigger tg : entry.getValue()) {
+                if (!registeredTriggerKeys.contains(tg.getKey())) {
+                    newTriggers.add(tg);
+                    continue;
+                }
+                //TriggerKey已存在时只有属于此Job才视为已注册，只在需要时读取此Job的触发器
+                if (jobRegistered && ownTriggerKeys == null) {
+                    ownTriggerKeys = new LinkedHashSet<>();
+                    try {
+                        for (Trigger own : scheduler.getTriggersOfJob(jobKey)) {
+                            ownTriggerKeys.add(own.getKey());
+                        }
+                    } catch (SchedulerException e) {
+                        report.addFailed(jobKey, e);
+                        lookupFailed = true;
+                        break;
+                    }
+                }
+                if (ownTriggerKeys != null && ownTriggerKeys.contains(tg.getKey())) {
+                    resumeJobKeys.add(jobKey);
+                } else {
+                    report.addFailed(tg.getKey(), new Exception("触发器已被其他Job使用"));
+                }
+            }
+            if (lookupFailed) {
+                continue;
+            }
+            if (newTriggers.isEmpty()) {
+                continue;
+            }
+            //已注册的Job需要以替换方式添加新的触发器，否则会出现键重复的错误
+            if (jobRegistered) {
+                registeredJobs.put(entry.getKey(), newTriggers);
+            } else {
+                newJobs.put(entry.getKey(), newTriggers);
+            }
+        }
+
+        this.scheduleInBatches(scheduler, newJobs, false, report::addInserted, report);
+        this.scheduleInBatches(scheduler, registeredJobs, true, report::addInserted, report);
+        //重启已注册的任务
+        for (JobKey jobKey : resumeJobKeys) {
+            try {
+                scheduler.resumeJob(jobKey);
+                report.addResumed(jobKey);
+            } catch (SchedulerException e) {
+                report.addFailed(jobKey, e);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 分批调用scheduleJobs注册任务
+     *
+     * <p>某一批提交失败时逐个重新提交该批任务，以确定具体失败的任务
+     *
+     * @param scheduler 调度器
+     * @param tasks     需要注册的任务
+     * @param replace   是否替换已存在的Job与Trigger
+     * @param succeeded 注册成功的JobKey的记录方式
+     * @param report    批量注册结果报告
+     */
+    private void scheduleInBatches(Scheduler scheduler, Map<JobDetail, Set<? extends Trigger>> tasks,
+                                   boolean replace, Consumer<JobKey> succeeded, TaskReport report) {
+        Map<JobDetail, Set<? extends Trigger>> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<JobDetail, Set<? extends Trigger>>> iterator = tasks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<JobDetail, Set<? extends Trigger>> entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() < BATCH_SIZE && iterator.hasNext()) {
+                continue;
+            }
+            try {
+                scheduler.scheduleJobs(batch, replace);
+                for (JobDetail jobDetail : batch.keySet()) {
+                    succeeded.accept(jobDetail.getKey());
+                }
+            } catch (SchedulerException batchException) {
+                for (Map.Entry<JobDetail, Set<? extends Trigger>> single : batch.entrySet()) {
+                    try {
+                        scheduler.scheduleJob(single.getKey(), single.getValue(), replace);
+                        succeeded.accept(single.getKey().getKey());
+                    } catch (SchedulerException e) {
+                        report.addFailed(single.getKey().getKey(), e);
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
     /**
      * 向调度器中注册任务监听
      *
@@ -369,16 +1170,42 @@ public final class QuartzManagerUtil {
      * @throws Exception        自定义异常
      */
     public void registerJobDetailListener(Class<? extends JobListener> jobListenerClass, JobKey jobKey) throws Exception {
-        Matcher<JobKey> jobKeyMatcher = KeyMatcher.keyEquals(jobKey);
-        try {
-            scheduler.getListenerManager().addJobListener(jobListenerClass.newInstance(), jobKeyMatcher);
-        } catch (InstantiationException e) {
-            e.printStackTrace();
-            throw new Exception("出现了实例化异常，可能是传入的监听类没有无参构造方法");
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-            throw new Exception("出现了访问权限异常，可能是错误的使用了private修饰符");
-        }
+        this.registerJobDetailListener(jobListenerClass, Collections.singleton(jobKey));
+    }
+
+    /**
+     * 向调度器中批量注册任务监听
+     *
+     * <p>同一监听类只创建一个实例，新增的JobKey加入该实例的匹配器中
+     *
+     * @param jobListenerClass  需要监听的任务类
+     * @param jobKeys           需要监听的任务的jobKey
+     * @throws Exception        自定义异常
+     */
+    public void registerJobDetailListener(Class<? extends JobListener> jobListenerClass, Collection<JobKey> jobKeys) throws Exception {
+        this.getListenerRegistry().addJobKeys(jobListenerClass, jobKeys);
+    }
+
+    /**
+     * 向调度器中注册任务组监听
+     *
+     * @param jobListenerClass  需要监听的任务类
+     * @param jobGroup          需要监听的任务组名
+     * @throws Exception        自定义异常
+     */
+    public void registerJobGroupListener(Class<? extends JobListener> jobListenerClass, String jobGroup) throws Exception {
+        this.getListenerRegistry().jobMatcher(jobListenerClass).addGroups(Collections.singleton(jobGroup));
+    }
+
+    /**
+     * 从调度器中批量移除任务监听
+     *
+     * @param jobListenerClass  监听的任务类
+     * @param jobKeys           不再监听的任务的jobKey
+     * @throws Exception        自定义异常
+     */
+    public void removeJobDetailListener(Class<? extends JobListener> jobListenerClass, Collection<JobKey> jobKeys) throws Exception {
+        this.getListenerRegistry().removeJobKeys(jobListenerClass, jobKeys);
     }
 
     /**
@@ -406,22 +1233,61 @@ public final class QuartzManagerUtil {
     }
 
     /**
-     * 向调度器中注册触发器监听
+     * 向调度器中注册触发器监听
+     *
+     * @param triggerListenerClass  触发器监听类
+     * @param triggerKey            需要监听的触发器的triggerKey
+     * @throws Exception            自定义异常
+     */
+    public void registerTriggerListener(Class<? extends TriggerListener> triggerListenerClass, TriggerKey triggerKey) throws Exception {
+        this.registerTriggerListener(triggerListenerClass, Collections.singleton(triggerKey));
+    }
+
+    /**
+     * 向调度器中批量注册触发器监听
+     *
+     * <p>同一监听类只创建一个实例，新增的TriggerKey加入该实例的匹配器中
+     *
+     * @param triggerListenerClass  触发器监听类
+     * @param triggerKeys           需要监听的触发器的triggerKey
+     * @throws Exception            自定义异常
+     */
+    public void registerTriggerListener(Class<? extends TriggerListener> triggerListenerClass, Collection<TriggerKey> triggerKeys) throws Exception {
+        this.getListenerRegistry().addTriggerKeys(triggerListenerClass, triggerKeys);
+    }
+
+    /**
+     * 向调度器中注册触发器组监听
+     *
+     * @param triggerListenerClass  触发器监听类
+     * @param triggerGroup          需要监听的触发器组名
+     * @throws Exception            自定义异常
+     */
+    public void registerTriggerGroupListener(Class<? extends TriggerListener> triggerListenerClass, String triggerGroup) throws Exception {
+        this.getListenerRegistry().triggerMatcher(triggerListenerClass).addGroups(Collections.singleton(triggerGroup));
+    }
+
+    /**
+     * 从调度器中批量移除触发器监听
+     *
+     * @param triggerListenerClass  触发器监听类
+     * @param triggerKeys           不再监听的触发器的triggerKey
+     * @throws Exception            自定义异常
+     */
+    public void removeTriggerListener(Class<? extends TriggerListener> triggerListenerClass, Collection<TriggerKey> triggerKeys) throws Exception {
+        this.getListenerRegistry().removeTriggerKeys(triggerListenerClass, triggerKeys);
+    }
+
+    /**
+     * 获取当前调度器的监听器注册表
      *
-     * @param triggerListenerClass  触发器监听类
-     * @param triggerKey            需要监听的触发器的triggerKey
-     * @throws Exception            自定义异常
+     * @return 监听器注册表
+     * @throws Exception 自定义异常
      */
-    public void registerTriggerListener(Class<? extends TriggerListener> triggerListenerClass, TriggerKey triggerKey) throws Exception {
-        Matcher<TriggerKey> triggerKeyMatcher = KeyMatcher.keyEquals(triggerKey);
-        try {
-            scheduler.getListenerManager().addTriggerListener(triggerListenerClass.newInstance(), triggerKeyMatcher);
-        } catch (InstantiationException e) {
-            e.printStackTrace();
-            throw new Exception("出现了实例化异常，可能是传入的监听类没有无参构造方法");
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-            throw new Exception("出现了访问权限异常，可能是错误的使用了private修饰符");
+    private ListenerRegistry getListenerRegistry() throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        synchronized (LISTENER_REGISTRIES) {
+            return LISTENER_REGISTRIES.computeIfAbsent(scheduler, ListenerRegistry::new);
         }
     }
 
@@ -457,7 +1323,7 @@ public final class QuartzManagerUtil {
      */
     public void deleteTask(TriggerKey triggerKey) throws Exception {
         try {
-            scheduler.unscheduleJob(triggerKey);
+            this.getScheduler().unscheduleJob(triggerKey);
         } catch (SchedulerException e) {
             e.printStackTrace();
             throw new Exception("删除任务失败");
@@ -494,8 +1360,16 @@ public final class QuartzManagerUtil {
      */
     public void deleteJob(JobKey jobKey) throws Exception {
         List<? extends Trigger> triggers = this.getTriggersByJobKey(jobKey);
+        List<TriggerKey> triggerKeys = new ArrayList<>(triggers.size());
         for (Trigger tg : triggers) {
-            this.deleteTask(tg);
+            triggerKeys.add(tg.getKey());
+        }
+        //一次删除该Job的所有触发器
+        try {
+            this.getScheduler().unscheduleJobs(triggerKeys);
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("删除任务失败");
         }
     }
 
@@ -519,29 +1393,422 @@ public final class QuartzManagerUtil {
         this.deleteJob(jobKey);
     }
 
+    /**
+     * 从调度器中批量删除任务
+     *
+     * <p>按BATCH_SIZE分批调用unscheduleJobs，每批在JobStore中为一次事务
+     *
+     * @param triggerKeys 需要删除的触发器TriggerKey
+     * @param progress    进度回调
+     * @return 批量删除结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport deleteTasks(Collection<TriggerKey> triggerKeys, BatchProgress progress) throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        TaskReport report = new TaskReport();
+        this.deleteInBatches(triggerKeys, progress, report,
+                group -> scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(group)), batch -> scheduler.unscheduleJobs(batch),
+                key -> scheduler.unscheduleJob(key));
+        return report;
+    }
+
+    /**
+     * 从调度器中批量删除任务
+     *
+     * @param triggerKeys 需要删除的触发器TriggerKey
+     * @return 批量删除结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport deleteTasks(Collection<TriggerKey> triggerKeys) throws Exception {
+        return this.deleteTasks(triggerKeys, BatchProgress.NONE);
+    }
+
+    /**
+     * 从调度器中删除触发器组内的所有任务
+     *
+     * @param triggerGroup 触发器组名
+     * @param progress     进度回调
+     * @return 批量删除结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport deleteTaskGroup(String triggerGroup, BatchProgress progress) throws Exception {
+        Set<TriggerKey> triggerKeys;
+        try {
+            triggerKeys = this.getScheduler().getTriggerKeys(GroupMatcher.triggerGroupEquals(triggerGroup));
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("获取Trigger集合失败");
+        }
+        return this.deleteTasks(triggerKeys, progress);
+    }
+
+    /**
+     * 从调度器中批量删除Job及其所有触发器
+     *
+     * <p>按BATCH_SIZE分批调用deleteJobs，每批在JobStore中为一次事务<br>
+     * 与deleteJob不同，持久化(durable)的Job也会被删除
+     *
+     * @param jobKeys  需要删除的JobKey
+     * @param progress 进度回调
+     * @return 批量删除结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport deleteJobs(Collection<JobKey> jobKeys, BatchProgress progress) throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        TaskReport report = new TaskReport();
+        this.deleteInBatches(jobKeys, progress, report,
+                group -> scheduler.getJobKeys(GroupMatcher.jobGroupEquals(group)), batch -> scheduler.deleteJobs(batch),
+                key -> scheduler.deleteJob(key));
+        return report;
+    }
+
+    /**
+     * 从调度器中批量删除Job及其所有触发器
+     *
+     * @param jobKeys 需要删除的JobKey
+     * @return 批量删除结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport deleteJobs(Collection<JobKey> jobKeys) throws Exception {
+        return this.deleteJobs(jobKeys, BatchProgress.NONE);
+    }
+
+    /**
+     * 从调度器中删除任务组内的所有Job及其触发器
+     *
+     * @param jobGroup 任务组名
+     * @param progress 进度回调
+     * @return 批量删除结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport deleteJobGroup(String jobGroup, BatchProgress progress) throws Exception {
+        Set<JobKey> jobKeys;
+        try {
+            jobKeys = this.getScheduler().getJobKeys(GroupMatcher.jobGroupEquals(jobGroup));
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("获取Job集合失败");
+        }
+        return this.deleteJobs(jobKeys, progress);
+    }
+
+    /**
+     * 分批删除Key
+     *
+     * <p>删除前按组读取调度器中已有的Key，不存在的Key记为失败，其余Key分批删除<br>
+     * 某一批删除失败或组内Key读取失败时逐个删除，以确定具体失败的Key
+     *
+     * @param keys         需要删除的Key
+     * @param progress     进度回调
+     * @param report       批量删除结果报告
+     * @param groupKeys    读取组内已有Key的操作
+     * @param batchDelete  批量删除操作
+     * @param singleDelete 单个删除操作
+     * @param <K>          Key类型
+     */
+    private <K extends Key<K>> void deleteInBatches(Collection<K> keys, BatchProgress progress, TaskReport report,
+                                                  GroupKeys<K> groupKeys, BatchOperation<List<K>> batchDelete,
+                                                  BatchOperation<K> singleDelete) {
+        int total = keys.size();
+        int completed = 0;
+        Map<String, Set<K>> existing = new HashMap<>();
+        List<K> present = new ArrayList<>(total);
+        List<K> unchecked = new ArrayList<>();
+        for (K key : keys) {
+            Set<K> group = existing.computeIfAbsent(key.getGroup(), g -> {
+                try {
+                    return groupKeys.apply(g);
+                } catch (SchedulerException e) {
+                    e.printStackTrace();
+                    return null;
+                }
+            });
+            if (group == null) {
+                unchecked.add(key);
+            } else if (group.contains(key)) {
+                present.add(key);
+            } else {
+                report.addFailed(key, notFound(key));
+                completed++;
+            }
+        }
+        List<K> batch = new ArrayList<>(Math.min(present.size(), BATCH_SIZE));
+        Iterator<K> iterator = present.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() < BATCH_SIZE && iterator.hasNext()) {
+                continue;
+            }
+            try {
+                //返回false时其中的Key在读取后已被其他操作删除，同样视为已删除
+                batchDelete.apply(batch);
+                for (K key : batch) {
+                    report.addDeleted(key);
+                }
+            } catch (SchedulerException batchException) {
+                this.deleteOneByOne(batch, report, singleDelete);
+            }
+            completed += batch.size();
+            progress.onProgress(completed, total);
+            batch.clear();
+        }
+        if (!unchecked.isEmpty()) {
+            this.deleteOneByOne(unchecked, report, singleDelete);
+            completed += unchecked.size();
+        }
+        if (total > 0 && (present.isEmpty() || !unchecked.isEmpty())) {
+            progress.onProgress(completed, total);
+        }
+    }
+
+    /**
+     * 逐个删除Key，不存在的Key记为失败
+     *
+     * @param keys         需要删除的Key
+     * @param report       批量删除结果报告
+     * @param singleDelete 单个删除操作
+     * @param <K>          Key类型
+     */
+    private <K extends Key<K>> void deleteOneByOne(List<K> keys, TaskReport report, BatchOperation<K> singleDelete) {
+        for (K key : keys) {
+            try {
+                if (singleDelete.apply(key)) {
+                    report.addDeleted(key);
+                } else {
+                    report.addFailed(key, notFound(key));
+                }
+            } catch (SchedulerException e) {
+                report.addFailed(key, e);
+            }
+        }
+    }
+
+    private static Exception notFound(Key<?> key) {
+        return new Exception(key instanceof TriggerKey ? "调度器中没有此触发器" : "调度器中没有此Job");
+    }
+
+    /**
+     * 读取组内已有的Key
+     *
+     * @param <K> Key类型
+     */
+    @FunctionalInterface
+    private interface GroupKeys<K> {
+
+        Set<K> apply(String group) throws SchedulerException;
+    }
+
+    /**
+     * 可能抛出调度器异常的批量操作
+     *
+     * @param <T> 操作对象类型
+     */
+    @FunctionalInterface
+    private interface BatchOperation<T> {
+
+        boolean apply(T target) throws SchedulerException;
+    }
+
     /**
      * 更新调度器中任务
      *
+     * <p>以替换方式一次写入JobDetail与Trigger，在JobStore中为一次事务，更新过程中任务不会失去触发器
+     *
      * @param jobDetail jobDetail实例
      * @param trigger   trigger实例
      * @throws Exception    自定义异常
      */
     public  void updateTask(JobDetail jobDetail, Trigger trigger) throws Exception {
-        try {
-            this.deleteTask(trigger);
-        } catch (SchedulerException e) {
-            e.printStackTrace();
-            throw new Exception("删除调度器中任务失败，可能是调度器中没有此任务");
-        }
+        Scheduler scheduler = this.getScheduler();
         try{
-            this.registerTask(jobDetail, trigger);
-        }catch (Exception e){
+            scheduler.scheduleJob(jobDetail, Collections.singleton(trigger), true);
+        }catch (SchedulerException e){
             e.printStackTrace();
             throw new Exception("更新任务失败");
         }
+    }
+
+    /**
+     * 批量更新调度器中任务
+     *
+     * <p>按BATCH_SIZE分批以替换方式写入，每批在JobStore中为一次事务
+     *
+     * @param tasks 任务JobDetail实例与其触发器集合的映射
+     * @return 批量更新结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport updateTasks(Map<JobDetail, Set<? extends Trigger>> tasks) throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        TaskReport report = new TaskReport();
+        this.scheduleInBatches(scheduler, tasks, true, report::addUpdated, report);
+        return report;
+    }
+
+    /**
+     * 批量修改触发器的cron表达式
+     *
+     * <p>使用rescheduleJob替换触发器，每个触发器为一次JobStore操作，不需要读取或重写JobDetail
+     *
+     * @param crons 触发器TriggerKey与新cron表达式的映射
+     * @return 批量修改结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport rescheduleTasks(Map<TriggerKey, String> crons) throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        TaskReport report = new TaskReport();
+        for (Map.Entry<TriggerKey, String> entry : crons.entrySet()) {
+            TriggerKey triggerKey = entry.getKey();
+            try {
+                Trigger trigger = this.createTrigger(triggerKey, entry.getValue());
+                if (scheduler.rescheduleJob(triggerKey, trigger) == null) {
+                    report.addFailed(triggerKey, new Exception("调度器中没有此触发器"));
+                } else {
+                    report.addUpdated(triggerKey);
+                }
+            } catch (SchedulerException | RuntimeException e) {
+                report.addFailed(triggerKey, e);
+            }
+        }
+        return report;
+    }
 
+    /**
+     * 将调度器中的任务同步为期望的任务集合
+     *
+     * <p>按JobKey、TriggerKey及内容指纹(TaskFingerprint)与已注册的任务比较，只提交差异，内容相同的任务不会被改写<br>
+     * 调度器中存在而期望集合中没有的Job及触发器会被删除
+     *
+     * @param tasks 期望的任务JobDetail实例与其触发器集合的映射
+     * @return 同步结果报告，未修改的Key记录在unchanged中
+     * @throws Exception 自定义异常
+     */
+    public TaskReport syncTasks(Map<JobDetail, Set<? extends Trigger>> tasks) throws Exception {
+        return this.syncTasks(tasks, null);
     }
 
+    /**
+     * 将调度器中指定任务组内的任务同步为期望的任务集合
+     *
+     * <p>只删除jobGroups内期望集合中没有的Job，其他任务组中的任务不受影响<br>
+     * 先分批写入新增及内容变化的任务，再分批删除多余的触发器及Job，未变化的触发器保持原有的下次触发时间
+     *
+     * @param tasks     期望的任务JobDetail实例与其触发器集合的映射
+     * @param jobGroups 同步范围内的任务组，为null时为调度器中的所有任务
+     * @return 同步结果报告，未修改的Key记录在unchanged中
+     * @throws Exception 自定义异常
+     */
+    public TaskReport syncTasks(Map<JobDetail, Set<? extends Trigger>> tasks, Collection<String> jobGroups) throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        TaskReport report = new TaskReport();
+        Set<JobKey> registeredJobKeys = new LinkedHashSet<>();
+        try {
+            if (jobGroups == null) {
+                registeredJobKeys.addAll(this.getAllJobs());
+            } else {
+                for (String jobGroup : jobGroups) {
+                    registeredJobKeys.addAll(scheduler.getJobKeys(GroupMatcher.jobGroupEquals(jobGroup)));
+                }
+            }
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("获取Job集合失败");
+        }
+
+        Map<JobDetail, Set<? extends Trigger>> newJobs = new LinkedHashMap<>();
+        Map<JobDetail, Set<? extends Trigger>> changedJobs = new LinkedHashMap<>();
+        List<JobDetail> changedJobDetails = new ArrayList<>();
+        Map<JobKey, List<TriggerKey>> insertedTriggers = new LinkedHashMap<>();
+        Map<JobKey, List<TriggerKey>> updatedTriggers = new LinkedHashMap<>();
+        Set<JobKey> updatedJobKeys = new LinkedHashSet<>();
+        List<TriggerKey> staleTriggers = new ArrayList<>();
+        Set<JobKey> staleJobs = new LinkedHashSet<>(registeredJobKeys);
+        Set<TriggerKey> desiredTriggers = new HashSet<>();
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : tasks.entrySet()) {
+            JobDetail jobDetail = entry.getKey();
+            JobKey jobKey = jobDetail.getKey();
+            staleJobs.remove(jobKey);
+            for (Trigger trigger : entry.getValue()) {
+                desiredTriggers.add(trigger.getKey());
+            }
+            JobDetail registered;
+            Map<TriggerKey, Trigger> registeredTriggers = new LinkedHashMap<>();
+            try {
+                registered = scheduler.getJobDetail(jobKey);
+                if (registered != null) {
+                    for (Trigger trigger : scheduler.getTriggersOfJob(jobKey)) {
+                        registeredTriggers.put(trigger.getKey(), trigger);
+                    }
+                }
+            } catch (SchedulerException e) {
+                report.addFailed(jobKey, e);
+                continue;
+            }
+            if (registered == null) {
+                newJobs.put(jobDetail, entry.getValue());
+                continue;
+            }
+            boolean jobChanged = TaskFingerprint.of(jobDetail) != TaskFingerprint.of(registered);
+            Set<Trigger> changedTriggers = new LinkedHashSet<>();
+            List<TriggerKey> inserted = new ArrayList<>();
+            List<TriggerKey> updated = new ArrayList<>();
+            for (Trigger trigger : entry.getValue()) {
+                Trigger current = registeredTriggers.remove(trigger.getKey());
+                if (current == null) {
+                    changedTriggers.add(trigger);
+                    inserted.add(trigger.getKey());
+                } else if (TaskFingerprint.of(trigger) != TaskFingerprint.of(current)) {
+                    changedTriggers.add(trigger);
+                    updated.add(trigger.getKey());
+                } else {
+                    report.addUnchanged(trigger.getKey());
+                }
+            }
+            staleTriggers.addAll(registeredTriggers.keySet());
+            if (!changedTriggers.isEmpty()) {
+                //以替换方式写入Job及变化的触发器，未变化的触发器不受影响
+                changedJobs.put(jobDetail, changedTriggers);
+                insertedTriggers.put(jobKey, inserted);
+                updatedTriggers.put(jobKey, updated);
+                if (jobChanged) {
+                    updatedJobKeys.add(jobKey);
+                } else {
+                    report.addUnchanged(jobKey);
+                }
+            } else if (jobChanged) {
+                changedJobDetails.add(jobDetail);
+            } else {
+                report.addUnchanged(jobKey);
+            }
+        }
+
+        //从其他Job移过来的TriggerKey以替换方式写入，不能再作为多余的触发器删除
+        staleTriggers.removeIf(desiredTriggers::contains);
+        //先写入再删除，避免非持久化的Job在失去最后一个触发器时被JobStore删除
+        this.scheduleInBatches(scheduler, newJobs, true, report::addInserted, report);
+        this.scheduleInBatches(scheduler, changedJobs, true, jobKey -> {
+            if (updatedJobKeys.contains(jobKey)) {
+                report.addUpdated(jobKey);
+            }
+            insertedTriggers.get(jobKey).forEach(report::addInserted);
+            updatedTriggers.get(jobKey).forEach(report::addUpdated);
+        }, report);
+        for (JobDetail jobDetail : changedJobDetails) {
+            try {
+                //只替换JobDetail，保留已有的触发器
+                scheduler.addJob(jobDetail, true, true);
+                report.addUpdated(jobDetail.getKey());
+            } catch (SchedulerException e) {
+                report.addFailed(jobDetail.getKey(), e);
+            }
+        }
+        this.deleteInBatches(staleTriggers, BatchProgress.NONE, report,
+                group -> scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(group)), batch -> scheduler.unscheduleJobs(batch),
+                key -> scheduler.unscheduleJob(key));
+        this.deleteInBatches(staleJobs, BatchProgress.NONE, report,
+                group -> scheduler.getJobKeys(GroupMatcher.jobGroupEquals(group)), batch -> scheduler.deleteJobs(batch),
+                key -> scheduler.deleteJob(key));
+        return report;
+    }
 
     /**
      * 更新调度器中任务
@@ -667,6 +1934,7 @@ public final class QuartzManagerUtil {
      * @throws Exception 自定义异常
      */
     public void startScheduler() throws Exception {
+        Scheduler scheduler = this.getScheduler();
         try {
             scheduler.start();
         } catch (SchedulerException e) {
@@ -675,30 +1943,233 @@ public final class QuartzManagerUtil {
         }
     }
 
+    /**
+     * 为任务组设置独立的执行器，该组的任务在调度器工作线程中占用组执行器的执行许可后执行
+     *
+     * <p>等待许可的任务同样占用调度器工作线程，并发数与等待数之和应小于调度器线程数<br>
+     * 同一组已有执行器时替换并关闭原执行器，原执行器中正在执行及等待许可的任务会继续执行
+     *
+     * @param groupExecutor 组执行器
+     * @throws Exception 自定义异常
+     */
+    public void setGroupExecutor(GroupExecutor groupExecutor) throws Exception {
+        GroupExecutor previous = this.getJobFactory().putExecutor(groupExecutor);
+        if (previous != null && previous != groupExecutor) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * 移除并关闭任务组的执行器，该组之后的任务回到调度器线程池中执行
+     *
+     * @param group 任务组名
+     * @throws Exception 自定义异常
+     */
+    public void removeGroupExecutor(String group) throws Exception {
+        GroupExecutor previous = this.getJobFactory().removeExecutor(group);
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * 获取所有组执行器，可用于读取各组的并发数与队列深度
+     *
+     * @return 只读的任务组名与组执行器的映射
+     * @throws Exception 自定义异常
+     */
+    public Map<String, GroupExecutor> getGroupExecutors() throws Exception {
+        return this.getJobFactory().getExecutors();
+    }
+
+    /**
+     * 设置调度器实际创建Job实例的JobFactory，组执行器及合并策略包装此JobFactory
+     *
+     * <p>Scheduler不提供读取JobFactory的方法，使用Spring等自定义JobFactory时需要通过此方法传入，否则包装PropertySettingJobFactory<br>
+     * 已设置的组执行器会被保留
+     *
+     * @param jobFactory 实际创建Job实例的JobFactory
+     * @throws Exception 自定义异常
+     */
+    public void setJobFactory(JobFactory jobFactory) throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        synchronized (JOB_FACTORIES) {
+            this.installJobFactory(scheduler, jobFactory, JOB_FACTORIES.get(scheduler));
+        }
+    }
+
+    /**
+     * 获取当前调度器按任务组分发执行的JobFactory，管理器首次获取调度器时已替换调度器原有的JobFactory
+     *
+     * <p>未通过setJobFactory设置时包装StdSchedulerFactory默认使用的PropertySettingJobFactory<br>
+     * 任务先按组占用组执行器的执行许可，再按合并策略执行
+     *
+     * @return JobFactory
+     * @throws Exception 自定义异常
+     */
+    private GroupDispatchJobFactory getJobFactory() throws Exception {
+        return this.installedJobFactory(this.getScheduler());
+    }
+
+    /**
+     * 获取调度器按任务组分发执行的JobFactory，尚未安装时替换调度器原有的JobFactory
+     *
+     * @param scheduler 调度器
+     * @return JobFactory
+     * @throws Exception 自定义异常
+     */
+    private GroupDispatchJobFactory installedJobFactory(Scheduler scheduler) throws Exception {
+        synchronized (JOB_FACTORIES) {
+            GroupDispatchJobFactory jobFactory = JOB_FACTORIES.get(scheduler);
+            if (jobFactory == null) {
+                jobFactory = this.installJobFactory(scheduler, new PropertySettingJobFactory(), null);
+            }
+            return jobFactory;
+        }
+    }
+
+    /**
+     * 包装JobFactory并设置到调度器，调用方需持有JOB_FACTORIES的锁
+     *
+     * @param scheduler 调度器
+     * @param delegate  实际创建Job实例的JobFactory
+     * @param previous  调度器当前使用的JobFactory，其组执行器及正在执行的任务的合并执行状态会被保留
+     * @return 按任务组分发执行的JobFactory
+     * @throws Exception 自定义异常
+     */
+    private GroupDispatchJobFactory installJobFactory(Scheduler scheduler, JobFactory delegate,
+                                                     GroupDispatchJobFactory previous) throws Exception {
+        GroupDispatchJobFactory jobFactory = new GroupDispatchJobFactory(previous == null
+                ? new CoalescingJobFactory(delegate)
+                : new CoalescingJobFactory(delegate, (CoalescingJobFactory) previous.getDelegate()));
+        if (previous != null) {
+            for (GroupExecutor groupExecutor : previous.getExecutors().values()) {
+                jobFactory.putExecutor(groupExecutor);
+            }
+        }
+        try {
+            scheduler.setJobFactory(jobFactory);
+            if (previous == null) {
+                //任务被删除时移除其合并执行状态
+                scheduler.getListenerManager().addSchedulerListener(new SchedulerListenerSupport() {
+                    @Override
+                    public void jobDeleted(JobKey jobKey) {
+                        GroupDispatchJobFactory current;
+                        synchronized (JOB_FACTORIES) {
+                            current = JOB_FACTORIES.get(scheduler);
+                        }
+                        if (current != null) {
+                            ((CoalescingJobFactory) current.getDelegate()).remove(jobKey);
+                        }
+                    }
+                });
+            }
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("设置JobFactory失败");
+        }
+        JOB_FACTORIES.put(scheduler, jobFactory);
+        return jobFactory;
+    }
+
     /**
      * 关闭调度器
      *
      * @throws Exception 自定义异常
      */
     public void shutdownScheduler() throws Exception {
+        Scheduler scheduler = this.scheduler;
+        if (scheduler == null) {
+            //调度器尚未创建时无需关闭
+            return;
+        }
+        boolean stopped = false;
         try {
             scheduler.shutdown();
+            stopped = true;
         } catch (SchedulerException e) {
             e.printStackTrace();
             throw new Exception("调度器关闭出现异常");
+        } finally {
+            if (stopped) {
+                //注册表持有调度器的强引用，WeakHashMap中的条目不会被自动回收，关闭时移除
+                synchronized (LISTENER_REGISTRIES) {
+                    LISTENER_REGISTRIES.remove(scheduler);
+                }
+                synchronized (JOB_FACTORIES) {
+                    GroupDispatchJobFactory jobFactory = JOB_FACTORIES.remove(scheduler);
+                    if (jobFactory != null) {
+                        for (GroupExecutor groupExecutor : jobFactory.getExecutors().values()) {
+                            groupExecutor.shutdown();
+                        }
+                    }
+                }
+            }
+            //调度器关闭失败时也写出审计缓冲区中的剩余记录，此时不以审计输出的异常覆盖调度器关闭的异常
+            try {
+                this.closeAuditSink();
+            } catch (Exception e) {
+                if (stopped) {
+                    throw e;
+                }
+            }
         }
     }
 
     /**
      * 清空调度器中任务
      *
+     * <p>分批删除所有触发器，持久化(durable)的Job及Calendar会被保留
+     *
      * @throws Exception   自定义异常
      */
     public void clearScheduler() throws Exception {
-        Set<TriggerKey> triggerKeySet;
-        triggerKeySet = this.getAllTriggers();
-        for (TriggerKey tgk : triggerKeySet) {
-            this.deleteTask(tgk);
+        this.clearScheduler(BatchProgress.NONE);
+    }
+
+    /**
+     * 清空调度器中任务
+     *
+     * <p>按触发器组逐组删除，进度回调的总数为已遍历触发器组的触发器总数<br>
+     * 读取后被其他操作删除的触发器视为已删除，只有删除时出现异常才会失败
+     *
+     * @param progress 进度回调
+     * @throws Exception   自定义异常
+     */
+    public void clearScheduler(BatchProgress progress) throws Exception {
+        Scheduler scheduler = this.getScheduler();
+        List<String> groups;
+        try {
+            groups = scheduler.getTriggerGroupNames();
+        } catch (SchedulerException e) {
+            e.printStackTrace();
+            throw new Exception("获取Trigger集合失败");
+        }
+        //逐个触发器组删除，同一时刻只持有一个触发器组的Key
+        boolean success = true;
+        int done = 0;
+        for (String group : groups) {
+            Set<TriggerKey> triggerKeySet;
+            try {
+                triggerKeySet = scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(group));
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+                throw new Exception("获取Trigger集合失败");
+            }
+            int offset = done;
+            TaskReport report = new TaskReport();
+            //直接删除刚读取的Key，不再重新读取；读取后已被其他操作删除的触发器同样视为已删除
+            this.deleteInBatches(triggerKeySet, (completed, total) -> progress.onProgress(offset + completed, offset + total), report,
+                    triggerGroup -> triggerKeySet, batch -> scheduler.unscheduleJobs(batch),
+                    key -> {
+                        scheduler.unscheduleJob(key);
+                        return true;
+                    });
+            done += triggerKeySet.size();
+            success &= report.isSuccess();
+        }
+        if (!success) {
+            throw new Exception("清空调度器中任务失败");
         }
     }
 
@@ -0,0 +1,319 @@
+package com.utils.demo.utils;
+
+import org.quartz.*;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.listeners.SchedulerListenerSupport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>调度器Key索引缓存
+ *
+ * <p>在内存中维护JobKey与触发器、组与Key的索引，通过调度器监听事件保持与JobStore一致<br>
+ * 集群环境下其他节点的修改不会通知到本节点，可设置过期时间定期从JobStore重新加载<br>
+ * 缓存的Trigger为注册时的实例，其下次触发时间等运行状态可能与JobStore中不一致
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class SchedulerIndex extends SchedulerListenerSupport {
+
+    /**
+     * 索引对应的调度器
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * 索引过期时间(毫秒)，小于等于0时不过期
+     */
+    private final long ttlMillis;
+
+    /**
+     * 当前索引，重新加载时整体替换
+     */
+    private volatile Index index = new Index();
+
+    /**
+     * 是否正在重新加载
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    /**
+     * 上次从JobStore加载的时间
+     */
+    private volatile long lastRefreshTime;
+
+    /**
+     * 创建调度器Key索引缓存
+     *
+     * @param scheduler 索引对应的调度器
+     * @param ttlMillis 索引过期时间(毫秒)，小于等于0时不过期
+     */
+    public SchedulerIndex(Scheduler scheduler, long ttlMillis) {
+        this.scheduler = scheduler;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 从JobStore重新加载全部索引
+     *
+     * @throws SchedulerException 调度器异常
+     */
+    public synchronized void refresh() throws SchedulerException {
+        //在新索引中加载完成后再替换，加载期间其他线程继续读取旧索引
+        Index loaded = new Index();
+        //逐个任务组读取，不一次性读取所有JobKey
+        for (String group : scheduler.getJobGroupNames()) {
+            for (JobKey jobKey : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(group))) {
+                JobDetail jobDetail = scheduler.getJobDetail(jobKey);
+                if (jobDetail != null) {
+                    loaded.addJob(jobDetail);
+                }
+                for (Trigger trigger : scheduler.getTriggersOfJob(jobKey)) {
+                    loaded.addTrigger(trigger);
+                }
+            }
+        }
+        index = loaded;
+        lastRefreshTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 获取JobKey对应的触发器列表
+     *
+     * @param jobKey 需要寻找的JobKey
+     * @return 触发器列表
+     */
+    public List<? extends Trigger> getTriggersOfJob(JobKey jobKey) {
+        this.refreshIfExpired();
+        Map<TriggerKey, Trigger> triggers = index.triggersByJob.get(jobKey);
+        if (triggers == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(triggers.values());
+    }
+
+    /**
+     * 获取所有JobKey
+     *
+     * @return 只读的JobKey集合
+     */
+    public Set<JobKey> getJobKeys() {
+        this.refreshIfExpired();
+        return Collections.unmodifiableSet(index.jobKeys);
+    }
+
+    /**
+     * 获取所有TriggerKey
+     *
+     * @return 只读的TriggerKey集合
+     */
+    public Set<TriggerKey> getTriggerKeys() {
+        this.refreshIfExpired();
+        return Collections.unmodifiableSet(index.triggerKeys);
+    }
+
+    /**
+     * 获取组内所有JobKey
+     *
+     * @param group 任务组名
+     * @return 只读的JobKey集合
+     */
+    public Set<JobKey> getJobKeys(String group) {
+        this.refreshIfExpired();
+        Set<JobKey> keys = index.jobsByGroup.get(group);
+        return keys == null ? Collections.<JobKey>emptySet() : Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * 获取组内所有TriggerKey
+     *
+     * @param group 触发器组名
+     * @return 只读的TriggerKey集合
+     */
+    public Set<TriggerKey> getTriggerKeys(String group) {
+        this.refreshIfExpired();
+        Set<TriggerKey> keys = index.triggersByGroup.get(group);
+        return keys == null ? Collections.<TriggerKey>emptySet() : Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * 索引过期时重新加载，同一时间只有一个线程进行加载，其他线程继续读取旧索引
+     */
+    private void refreshIfExpired() {
+        if (ttlMillis <= 0 || System.currentTimeMillis() - lastRefreshTime < ttlMillis) {
+            return;
+        }
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                this.refresh();
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+            } finally {
+                refreshing.set(false);
+            }
+        }
+    }
+
+    private void reset() {
+        index = new Index();
+    }
+
+    @Override
+    public synchronized void jobAdded(JobDetail jobDetail) {
+        index.addJob(jobDetail);
+    }
+
+    @Override
+    public synchronized void jobDeleted(JobKey jobKey) {
+        index.removeJob(jobKey);
+    }
+
+    @Override
+    public synchronized void jobScheduled(Trigger trigger) {
+        index.addTrigger(trigger);
+    }
+
+    /**
+     * 触发器被删除时触发，调用Scheduler.clear()时triggerKey为null
+     *
+     * @param triggerKey 被删除的触发器的triggerKey
+     */
+    @Override
+    public synchronized void jobUnscheduled(TriggerKey triggerKey) {
+        if (triggerKey == null) {
+            this.reset();
+        } else {
+            index.removeTrigger(triggerKey);
+        }
+    }
+
+    @Override
+    public synchronized void triggerFinalized(Trigger trigger) {
+        index.removeTrigger(trigger.getKey());
+    }
+
+    @Override
+    public synchronized void schedulingDataCleared() {
+        this.reset();
+    }
+
+    /**
+     * 索引数据
+     */
+    private static final class Index {
+
+        /**
+         * JobKey到其触发器的索引
+         */
+        private final Map<JobKey, Map<TriggerKey, Trigger>> triggersByJob = new ConcurrentHashMap<>();
+
+        /**
+         * TriggerKey到其JobKey的索引
+         */
+        private final Map<TriggerKey, JobKey> jobByTrigger = new ConcurrentHashMap<>();
+
+        /**
+         * 组名到JobKey的索引
+         */
+        private final Map<String, Set<JobKey>> jobsByGroup = new ConcurrentHashMap<>();
+
+        /**
+         * 组名到TriggerKey的索引
+         */
+        private final Map<String, Set<TriggerKey>> triggersByGroup = new ConcurrentHashMap<>();
+
+        /**
+         * 持久化(durable)的Job，没有触发器时不会被JobStore删除
+         */
+        private final Set<JobKey> durableJobs = ConcurrentHashMap.newKeySet();
+
+        /**
+         * 所有JobKey
+         */
+        private final Set<JobKey> jobKeys = ConcurrentHashMap.newKeySet();
+
+        /**
+         * 所有TriggerKey
+         */
+        private final Set<TriggerKey> triggerKeys = ConcurrentHashMap.newKeySet();
+
+        void addJob(JobDetail jobDetail) {
+            JobKey jobKey = jobDetail.getKey();
+            if (jobDetail.isDurable()) {
+                durableJobs.add(jobKey);
+            } else {
+                durableJobs.remove(jobKey);
+            }
+            this.addJobKey(jobKey);
+        }
+
+        void addJobKey(JobKey jobKey) {
+            jobKeys.add(jobKey);
+            jobsByGroup.computeIfAbsent(jobKey.getGroup(), g -> ConcurrentHashMap.newKeySet()).add(jobKey);
+            triggersByJob.computeIfAbsent(jobKey, k -> new ConcurrentHashMap<>());
+        }
+
+        void removeJob(JobKey jobKey) {
+            jobKeys.remove(jobKey);
+            durableJobs.remove(jobKey);
+            Set<JobKey> group = jobsByGroup.get(jobKey.getGroup());
+            if (group != null) {
+                group.remove(jobKey);
+            }
+            Map<TriggerKey, Trigger> triggers = triggersByJob.remove(jobKey);
+            if (triggers != null) {
+                for (TriggerKey triggerKey : triggers.keySet()) {
+                    this.removeTriggerKey(triggerKey);
+                }
+            }
+        }
+
+        void addTrigger(Trigger trigger) {
+            TriggerKey triggerKey = trigger.getKey();
+            JobKey jobKey = trigger.getJobKey();
+            //替换触发器时先从原Job中移除
+            JobKey previous = jobByTrigger.put(triggerKey, jobKey);
+            if (previous != null && !previous.equals(jobKey)) {
+                Map<TriggerKey, Trigger> triggers = triggersByJob.get(previous);
+                if (triggers != null) {
+                    triggers.remove(triggerKey);
+                }
+            }
+            this.addJobKey(jobKey);
+            triggersByJob.get(jobKey).put(triggerKey, trigger);
+            triggerKeys.add(triggerKey);
+            triggersByGroup.computeIfAbsent(triggerKey.getGroup(), g -> ConcurrentHashMap.newKeySet()).add(triggerKey);
+        }
+
+        void removeTrigger(TriggerKey triggerKey) {
+            JobKey jobKey = this.removeTriggerKey(triggerKey);
+            if (jobKey == null) {
+                return;
+            }
+            Map<TriggerKey, Trigger> triggers = triggersByJob.get(jobKey);
+            if (triggers != null) {
+                triggers.remove(triggerKey);
+                //与JobStore一致，非持久化的Job在最后一个触发器被删除后一并删除
+                if (triggers.isEmpty() && !durableJobs.contains(jobKey)) {
+                    this.removeJob(jobKey);
+                }
+            }
+        }
+
+        JobKey removeTriggerKey(TriggerKey triggerKey) {
+            triggerKeys.remove(triggerKey);
+            Set<TriggerKey> group = triggersByGroup.get(triggerKey.getGroup());
+            if (group != null) {
+                group.remove(triggerKey);
+            }
+            return jobByTrigger.remove(triggerKey);
+        }
+    }
+}
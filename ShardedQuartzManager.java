@@ -0,0 +1,420 @@
+package com.utils.demo.utils;
+
+import org.quartz.*;
+import org.quartz.impl.StdSchedulerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * <p>分片调度管理器
+ *
+ * <p>创建多个独立命名的调度器，每个调度器拥有自己的线程池与JobStore锁<br>
+ * 任务按JobKey的一致性哈希分配到各个分片，同一JobKey的注册、更新、删除及监听都在同一分片上进行<br>
+ * 配置中含有"{shard}"的属性值会被替换为分片序号，可用于为每个分片指定不同的表前缀(org.quartz.jobStore.tablePrefix)
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class ShardedQuartzManager {
+
+    /**
+     * 分片序号占位符
+     */
+    public static final String SHARD_PLACEHOLDER = "{shard}";
+
+    /**
+     * 每个分片在哈希环上的虚拟节点数
+     */
+    private static final int VIRTUAL_NODES = 160;
+
+    /**
+     * 各分片的调度管理器
+     */
+    private final List<QuartzManagerUtil> shards;
+
+    /**
+     * 一致性哈希环，哈希值到分片序号的映射
+     */
+    private final TreeMap<Integer, Integer> ring = new TreeMap<>();
+
+    /**
+     * 创建分片调度管理器
+     *
+     * @param namePrefix     调度器名前缀，分片调度器名为namePrefix_序号
+     * @param shardCount     分片数
+     * @param baseProperties 各分片共用的quartz配置
+     * @throws Exception 自定义异常
+     */
+    public ShardedQuartzManager(String namePrefix, int shardCount, Properties baseProperties) throws Exception {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount必须大于0");
+        }
+        List<QuartzManagerUtil> managers = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            Properties properties = new Properties();
+            for (String name : baseProperties.stringPropertyNames()) {
+                properties.setProperty(name, baseProperties.getProperty(name).replace(SHARD_PLACEHOLDER, String.valueOf(i)));
+            }
+            properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, namePrefix + "_" + i);
+            try {
+                managers.add(new QuartzManagerUtil(new StdSchedulerFactory(properties).getScheduler()));
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+                throw new Exception("分片调度器" + i + "初始化失败");
+            }
+        }
+        this.shards = Collections.unmodifiableList(managers);
+        this.buildRing();
+    }
+
+    /**
+     * 使用已创建的调度管理器作为分片
+     *
+     * @param shards 各分片的调度管理器
+     */
+    public ShardedQuartzManager(List<QuartzManagerUtil> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个分片");
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.buildRing();
+    }
+
+    private void buildRing() {
+        for (int i = 0; i < shards.size(); i++) {
+            for (int v = 0; v < VIRTUAL_NODES; v++) {
+                ring.put(hash("shard-" + i + "#" + v), i);
+            }
+        }
+    }
+
+    /**
+     * FNV-1a哈希，再做一次混合使分布更均匀
+     *
+     * @param value 字符串
+     * @return 哈希值
+     */
+    private static int hash(String value) {
+        int h = 0x811c9dc5;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    /**
+     * 获取所有分片的调度管理器
+     *
+     * @return 只读的调度管理器列表
+     */
+    public List<QuartzManagerUtil> getShards() {
+        return shards;
+    }
+
+    /**
+     * 获取JobKey所在分片的序号
+     *
+     * @param jobKey 任务JobKey
+     * @return 分片序号
+     */
+    public int shardIndexOf(JobKey jobKey) {
+        SortedMap<Integer, Integer> tail = ring.tailMap(hash(jobKey.getGroup() + "." + jobKey.getName()));
+        return tail.isEmpty() ? ring.firstEntry().getValue() : tail.get(tail.firstKey());
+    }
+
+    /**
+     * 获取JobKey所在分片的调度管理器
+     *
+     * @param jobKey 任务JobKey
+     * @return 调度管理器
+     */
+    public QuartzManagerUtil shardOf(JobKey jobKey) {
+        return shards.get(this.shardIndexOf(jobKey));
+    }
+
+    /**
+     * 获取已注册的触发器所在分片的调度管理器
+     *
+     * <p>TriggerKey不含所属Job，因此依次在每个分片中查找
+     *
+     * @param triggerKey 触发器TriggerKey
+     * @return 调度管理器
+     * @throws Exception 所有分片中都没有此触发器时抛出
+     */
+    public QuartzManagerUtil shardOf(TriggerKey triggerKey) throws Exception {
+        for (QuartzManagerUtil shard : shards) {
+            try {
+                if (shard.getScheduler().checkExists(triggerKey)) {
+                    return shard;
+                }
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+                throw new Exception("查找触发器所在分片失败");
+            }
+        }
+        throw new Exception("调度器中没有此触发器");
+    }
+
+    /**
+     * 获取触发器所在分片的调度管理器，触发器未设置所属Job(如刚由createTrigger创建)时按TriggerKey查找
+     *
+     * @param trigger 触发器
+     * @return 调度管理器
+     * @throws Exception 自定义异常
+     */
+    private QuartzManagerUtil shardOf(Trigger trigger) throws Exception {
+        return trigger.getJobKey() == null ? this.shardOf(trigger.getKey()) : this.shardOf(trigger.getJobKey());
+    }
+
+    /**
+     * 向JobKey所在分片注册任务
+     *
+     * @param jobDetail 任务jobDetail实例
+     * @param trigger   触发器trigger实例
+     * @throws Exception 自定义异常
+     */
+    public void registerTask(JobDetail jobDetail, Trigger trigger) throws Exception {
+        this.shardOf(jobDetail.getKey()).registerTask(jobDetail, trigger);
+    }
+
+    /**
+     * 按分片批量注册任务
+     *
+     * @param tasks 任务JobDetail实例与其触发器集合的映射
+     * @return 合并后的批量注册结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport registerTasks(Map<JobDetail, Set<? extends Trigger>> tasks) throws Exception {
+        TaskReport report = new TaskReport();
+        List<Map<JobDetail, Set<? extends Trigger>>> partitions = this.partition(tasks);
+        for (int i = 0; i < shards.size(); i++) {
+            if (!partitions.get(i).isEmpty()) {
+                report.merge(shards.get(i).registerTasks(partitions.get(i)));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 更新JobKey所在分片中的任务
+     *
+     * @param jobDetail jobDetail实例
+     * @param trigger   trigger实例
+     * @throws Exception 自定义异常
+     */
+    public void updateTask(JobDetail jobDetail, Trigger trigger) throws Exception {
+        this.shardOf(jobDetail.getKey()).updateTask(jobDetail, trigger);
+    }
+
+    /**
+     * 按分片批量更新任务
+     *
+     * @param tasks 任务JobDetail实例与其触发器集合的映射
+     * @return 合并后的批量更新结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport updateTasks(Map<JobDetail, Set<? extends Trigger>> tasks) throws Exception {
+        TaskReport report = new TaskReport();
+        List<Map<JobDetail, Set<? extends Trigger>>> partitions = this.partition(tasks);
+        for (int i = 0; i < shards.size(); i++) {
+            if (!partitions.get(i).isEmpty()) {
+                report.merge(shards.get(i).updateTasks(partitions.get(i)));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 从JobKey所在分片删除使用同一Job实例的任务
+     *
+     * @param jobKey 需要删除的JobKey
+     * @throws Exception 自定义异常
+     */
+    public void deleteJob(JobKey jobKey) throws Exception {
+        this.shardOf(jobKey).deleteJob(jobKey);
+    }
+
+    /**
+     * 按分片批量删除Job及其所有触发器
+     *
+     * @param jobKeys 需要删除的JobKey
+     * @return 合并后的批量删除结果报告
+     * @throws Exception 自定义异常
+     */
+    public TaskReport deleteJobs(Collection<JobKey> jobKeys) throws Exception {
+        List<List<JobKey>> partitions = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (JobKey jobKey : jobKeys) {
+            partitions.get(this.shardIndexOf(jobKey)).add(jobKey);
+        }
+        TaskReport report = new TaskReport();
+        for (int i = 0; i < shards.size(); i++) {
+            if (!partitions.get(i).isEmpty()) {
+                report.merge(shards.get(i).deleteJobs(partitions.get(i)));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 从触发器所属Job所在分片删除任务，触发器未设置所属Job时在每个分片上执行
+     *
+     * @param trigger 触发器
+     * @throws Exception 自定义异常
+     */
+    public void deleteTask(Trigger trigger) throws Exception {
+        if (trigger.getJobKey() == null) {
+            this.deleteTask(trigger.getKey());
+            return;
+        }
+        this.shardOf(trigger.getJobKey()).deleteTask(trigger);
+    }
+
+    /**
+     * 从所有分片删除任务，TriggerKey不含所属Job，因此需要在每个分片上执行
+     *
+     * @param triggerKey 触发器TriggerKey
+     * @throws Exception 自定义异常
+     */
+    public void deleteTask(TriggerKey triggerKey) throws Exception {
+        for (QuartzManagerUtil shard : shards) {
+            shard.deleteTask(triggerKey);
+        }
+    }
+
+    /**
+     * 获取JobKey所在分片中的触发器列表
+     *
+     * @param jobKey 需要寻找的JobKey
+     * @return 触发器列表
+     * @throws Exception 自定义异常
+     */
+    public List<? extends Trigger> getTriggersByJobKey(JobKey jobKey) throws Exception {
+        return this.shardOf(jobKey).getTriggersByJobKey(jobKey);
+    }
+
+    /**
+     * 获取所有分片中Job对象的Key
+     *
+     * @return 含有所有Job对象的集合
+     * @throws Exception 自定义异常
+     */
+    public Set<JobKey> getAllJobs() throws Exception {
+        Set<JobKey> jobKeys = new LinkedHashSet<>();
+        for (QuartzManagerUtil shard : shards) {
+            jobKeys.addAll(shard.getAllJobs());
+        }
+        return jobKeys;
+    }
+
+    /**
+     * 获取所有分片中Trigger对象的Key
+     *
+     * @return 含有所有Trigger对象的集合
+     * @throws Exception 自定义异常
+     */
+    public Set<TriggerKey> getAllTriggers() throws Exception {
+        Set<TriggerKey> triggerKeys = new LinkedHashSet<>();
+        for (QuartzManagerUtil shard : shards) {
+            triggerKeys.addAll(shard.getAllTriggers());
+        }
+        return triggerKeys;
+    }
+
+    /**
+     * 向JobKey所在分片注册任务监听
+     *
+     * @param jobListenerClass 需要监听的任务类
+     * @param jobKey           需要监听的任务的jobKey
+     * @throws Exception 自定义异常
+     */
+    public void registerJobDetailListener(Class<? extends JobListener> jobListenerClass, JobKey jobKey) throws Exception {
+        this.shardOf(jobKey).registerJobDetailListener(jobListenerClass, jobKey);
+    }
+
+    /**
+     * 向触发器所在分片注册触发器监听，触发器未设置所属Job时按TriggerKey查找已注册的分片
+     *
+     * @param triggerListenerClass 触发器监听类
+     * @param trigger              需要监听的触发器
+     * @throws Exception 自定义异常，触发器未设置所属Job且未注册到任何分片时抛出
+     */
+    public void registerTriggerListener(Class<? extends TriggerListener> triggerListenerClass, Trigger trigger) throws Exception {
+        this.shardOf(trigger).registerTriggerListener(triggerListenerClass, trigger);
+    }
+
+    /**
+     * 启动所有分片的调度器
+     *
+     * @throws Exception 自定义异常
+     */
+    public void startScheduler() throws Exception {
+        for (QuartzManagerUtil shard : shards) {
+            shard.startScheduler();
+        }
+    }
+
+    /**
+     * 关闭所有分片的调度器
+     *
+     * @throws Exception 自定义异常
+     */
+    public void shutdownScheduler() throws Exception {
+        Exception failure = null;
+        for (QuartzManagerUtil shard : shards) {
+            try {
+                shard.shutdownScheduler();
+            } catch (Exception e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 清空所有分片中的任务
+     *
+     * @throws Exception 自定义异常
+     */
+    public void clearScheduler() throws Exception {
+        for (QuartzManagerUtil shard : shards) {
+            shard.clearScheduler();
+        }
+    }
+
+    /**
+     * 按JobKey所在分片拆分任务
+     *
+     * @param tasks 任务JobDetail实例与其触发器集合的映射
+     * @return 各分片的任务
+     */
+    private List<Map<JobDetail, Set<? extends Trigger>>> partition(Map<JobDetail, Set<? extends Trigger>> tasks) {
+        List<Map<JobDetail, Set<? extends Trigger>>> partitions = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            partitions.add(new LinkedHashMap<>());
+        }
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : tasks.entrySet()) {
+            partitions.get(this.shardIndexOf(entry.getKey().getKey())).put(entry.getKey(), entry.getValue());
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,927 @@
+package com.utils.demo.Store;
+
+import org.quartz.Calendar;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+import org.quartz.spi.TriggerFiredResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * <p>内存优先、异步写入的JobStore
+ *
+ * <p>获取及触发触发器完全在内存中进行，与RAMJobStore相同，不需要数据库事务<br>
+ * 每次修改在持有RAMJobStore锁时放入队列，由后台线程序列化后批量追加到本地日志文件，每批写入后刷盘<br>
+ * 初始化时(即getScheduler()创建调度器时)重放日志恢复任务、触发器、日历及暂停状态，然后压缩为快照<br>
+ * 日志超过压缩阈值及上次快照大小的2倍时由后台线程重新写出快照<br>
+ * 写入失败时按退避时间重试，重试时重新写出完整快照，不在可能写了一半的日志后继续追加；
+ * 等待写入的条目超过maxPending时不再放入队列，同样在下一次写入时以快照代替，内存占用有上限
+ *
+ * <p>未持久化的状态：崩溃前最后一批尚未写入的修改、触发器的COMPLETE及ERROR状态、misfire处理结果(重启后重新处理)
+ *
+ * <p>配置示例：
+ * <pre>
+ * org.quartz.jobStore.class = com.utils.demo.Store.WriteBehindJobStore
+ * org.quartz.jobStore.logFile = /data/quartz/scheduler.journal
+ * org.quartz.jobStore.syncWrites = true
+ * org.quartz.jobStore.compactThresholdBytes = 67108864
+ * org.quartz.jobStore.maxPending = 65536
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public class WriteBehindJobStore extends RAMJobStore {
+
+    /**
+     * 日志条目类型
+     */
+    private enum Op {
+        STORE_JOB,
+        STORE_TRIGGER,
+        REMOVE_JOB,
+        REMOVE_TRIGGER,
+        REPLACE_TRIGGER,
+        STORE_CALENDAR,
+        REMOVE_CALENDAR,
+        PAUSE_TRIGGER,
+        PAUSE_TRIGGERS,
+        PAUSE_JOB,
+        PAUSE_JOBS,
+        RESUME_TRIGGER,
+        RESUME_TRIGGERS,
+        RESUME_JOB,
+        RESUME_JOBS,
+        PAUSE_ALL,
+        RESUME_ALL,
+        RESET_TRIGGER_FROM_ERROR
+    }
+
+    /**
+     * 每批写入的最大条目数
+     */
+    private static final int MAX_BATCH = 1024;
+
+    /**
+     * 写入失败后重试的最长退避时间(毫秒)
+     */
+    private static final long MAX_BACKOFF_MILLIS = 10000;
+
+    /**
+     * 关闭时写入仍然失败的最大重试次数
+     */
+    private static final int SHUTDOWN_RETRIES = 3;
+
+    private String logFile;
+
+    private boolean syncWrites = true;
+
+    private long compactThresholdBytes = 64L * 1024 * 1024;
+
+    private int maxPending = 65536;
+
+    private ClassLoadHelper loadHelper;
+
+    /**
+     * 等待写入的日志条目，在持有锁时放入，保证与内存中的修改顺序一致
+     */
+    private LinkedBlockingQueue<Object[]> queue = new LinkedBlockingQueue<>(maxPending);
+
+    /**
+     * 是否需要以完整快照代替队列中的条目，写入失败或队列已满时设置，只在持有锁时清除
+     */
+    private volatile boolean resync;
+
+    /**
+     * 当前修改的嵌套深度，只记录最外层的修改，重放时也不记录，只在持有锁时访问
+     */
+    private int nesting;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private volatile long logBytes;
+
+    /**
+     * 上次写出的快照的字节数
+     */
+    private volatile long snapshotBytes;
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder writeErrors = new LongAdder();
+
+    /**
+     * 设置日志文件路径，默认为工作目录下的"调度器名.journal"
+     *
+     * @param logFile 日志文件路径
+     */
+    public void setLogFile(String logFile) {
+        this.logFile = logFile;
+    }
+
+    /**
+     * 设置每批写入后是否刷盘，默认为true
+     *
+     * @param syncWrites 是否刷盘
+     */
+    public void setSyncWrites(boolean syncWrites) {
+        this.syncWrites = syncWrites;
+    }
+
+    /**
+     * 设置日志压缩阈值，默认为64MB
+     *
+     * @param compactThresholdBytes 日志超过此字节数时重新写出快照
+     */
+    public void setCompactThresholdBytes(long compactThresholdBytes) {
+        this.compactThresholdBytes = compactThresholdBytes;
+    }
+
+    /**
+     * 设置等待写入的日志条目数上限，默认为65536，超过时以完整快照代替
+     *
+     * @param maxPending 条目数上限
+     */
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public void setInstanceName(String schedName) {
+        super.setInstanceName(schedName);
+        if (logFile == null) {
+            logFile = schedName + ".journal";
+        }
+    }
+
+    @Override
+    public void initialize(ClassLoadHelper loadHelper, SchedulerSignaler schedSignaler) {
+        super.initialize(loadHelper, schedSignaler);
+        this.loadHelper = loadHelper;
+        this.queue = new LinkedBlockingQueue<>(maxPending);
+        File file = new File(logFile);
+        try {
+            synchronized (lock) {
+                nesting++;
+                try {
+                    this.replay(file);
+                } finally {
+                    nesting--;
+                }
+                this.writeSnapshot(file, this.snapshot());
+            }
+        } catch (IOException | JobPersistenceException e) {
+            e.printStackTrace();
+            throw new IllegalStateException("日志文件" + file + "恢复失败");
+        }
+        running = true;
+        writer = new Thread(this::run, "WriteBehindJobStore");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public boolean supportsPersistence() {
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 重放日志文件，文件末尾不完整或校验失败的条目被忽略
+     *
+     * @param file 日志文件
+     * @throws IOException 读取失败
+     */
+    private void replay(File file) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    long checksum = in.readInt() & 0xFFFFFFFFL;
+                    if (length < 0 || length > file.length()) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if (crc.getValue() != checksum) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    //崩溃时写了一半的条目
+                    break;
+                }
+                try {
+                    this.apply(this.deserialize(payload));
+                } catch (JobPersistenceException | ClassNotFoundException | RuntimeException e) {
+                    e.printStackTrace();
+                    failed.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * 重新执行一个日志条目，新增及替换一律覆盖已有对象
+     *
+     * @param entry 日志条目
+     * @throws JobPersistenceException 执行失败
+     */
+    @SuppressWarnings("unchecked")
+    private void apply(Object[] entry) throws JobPersistenceException {
+        switch ((Op) entry[0]) {
+            case STORE_JOB:
+                super.storeJob((JobDetail) entry[1], true);
+                break;
+            case STORE_TRIGGER:
+                super.storeTrigger((OperableTrigger) entry[1], true);
+                break;
+            case REMOVE_JOB:
+                super.removeJob((JobKey) entry[1]);
+                break;
+            case REMOVE_TRIGGER:
+                super.removeTrigger((TriggerKey) entry[1]);
+                break;
+            case REPLACE_TRIGGER:
+                super.replaceTrigger((TriggerKey) entry[1], (OperableTrigger) entry[2]);
+                break;
+            case STORE_CALENDAR:
+                super.storeCalendar((String) entry[1], (Calendar) entry[2], true, (Boolean) entry[3]);
+                break;
+            case REMOVE_CALENDAR:
+                super.removeCalendar((String) entry[1]);
+                break;
+            case PAUSE_TRIGGER:
+                super.pauseTrigger((TriggerKey) entry[1]);
+                break;
+            case PAUSE_TRIGGERS:
+                super.pauseTriggers((GroupMatcher<TriggerKey>) entry[1]);
+                break;
+            case PAUSE_JOB:
+                super.pauseJob((JobKey) entry[1]);
+                break;
+            case PAUSE_JOBS:
+                super.pauseJobs((GroupMatcher<JobKey>) entry[1]);
+                break;
+            case RESUME_TRIGGER:
+                super.resumeTrigger((TriggerKey) entry[1]);
+                break;
+            case RESUME_TRIGGERS:
+                super.resumeTriggers((GroupMatcher<TriggerKey>) entry[1]);
+                break;
+            case RESUME_JOB:
+                super.resumeJob((JobKey) entry[1]);
+                break;
+            case RESUME_JOBS:
+                super.resumeJobs((GroupMatcher<JobKey>) entry[1]);
+                break;
+            case PAUSE_ALL:
+                super.pauseAll();
+                break;
+            case RESUME_ALL:
+                super.resumeAll();
+                break;
+            case RESET_TRIGGER_FROM_ERROR:
+                super.resetTriggerFromErrorState((TriggerKey) entry[1]);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 生成当前状态的快照条目，需要持有锁
+     *
+     * @return 快照条目
+     * @throws JobPersistenceException 读取状态失败
+     */
+    private List<Object[]> snapshot() throws JobPersistenceException {
+        List<Object[]> entries = new ArrayList<>();
+        for (String name : this.getCalendarNames()) {
+            entries.add(new Object[]{Op.STORE_CALENDAR, name, this.retrieveCalendar(name).clone(), Boolean.FALSE});
+        }
+        for (JobKey jobKey : this.getJobKeys(GroupMatcher.anyJobGroup())) {
+            entries.add(new Object[]{Op.STORE_JOB, this.retrieveJob(jobKey)});
+        }
+        List<TriggerKey> pausedTriggers = new ArrayList<>();
+        for (TriggerKey triggerKey : this.getTriggerKeys(GroupMatcher.anyTriggerGroup())) {
+            OperableTrigger trigger = this.retrieveTrigger(triggerKey);
+            entries.add(new Object[]{Op.STORE_TRIGGER, trigger});
+            if (this.getTriggerState(triggerKey) == Trigger.TriggerState.PAUSED
+                    && !pausedTriggerGroups.contains(triggerKey.getGroup())
+                    && !pausedJobGroups.contains(trigger.getJobKey().getGroup())) {
+                pausedTriggers.add(triggerKey);
+            }
+        }
+        for (String group : pausedTriggerGroups) {
+            entries.add(new Object[]{Op.PAUSE_TRIGGERS, GroupMatcher.triggerGroupEquals(group)});
+        }
+        for (String group : pausedJobGroups) {
+            entries.add(new Object[]{Op.PAUSE_JOBS, GroupMatcher.jobGroupEquals(group)});
+        }
+        for (TriggerKey triggerKey : pausedTriggers) {
+            entries.add(new Object[]{Op.PAUSE_TRIGGER, triggerKey});
+        }
+        return entries;
+    }
+
+    /**
+     * 将快照写入临时文件后替换日志文件
+     *
+     * @param file    日志文件
+     * @param entries 快照条目
+     * @throws IOException 写入失败
+     */
+    private void writeSnapshot(File file, List<Object[]> entries) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+            this.write(data, entries);
+            data.flush();
+            out.getChannel().force(false);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logBytes = file.length();
+        snapshotBytes = logBytes;
+    }
+
+    /**
+     * 后台线程循环取出日志条目并批量追加写入
+     *
+     * <p>写入失败后按退避时间重试，重试时重新写出完整快照，关闭时最多重试SHUTDOWN_RETRIES次
+     */
+    private void run() {
+        File file = new File(logFile);
+        List<Object[]> batch = new ArrayList<>(MAX_BATCH);
+        FileOutputStream out = null;
+        DataOutputStream data = null;
+        int errors = 0;
+        while (running || !queue.isEmpty() || resync) {
+            try {
+                if (resync || this.needsCompaction()) {
+                    //以当前状态的快照代替日志，同时丢弃可能写了一半的条目
+                    closeQuietly(out);
+                    out = null;
+                    List<Object[]> snapshot;
+                    synchronized (lock) {
+                        snapshot = this.snapshot();
+                        //队列中的修改均已包含在快照中
+                        queue.clear();
+                        resync = false;
+                    }
+                    try {
+                        this.writeSnapshot(file, snapshot);
+                    } catch (IOException e) {
+                        resync = true;
+                        throw e;
+                    }
+                }
+                if (out == null) {
+                    out = new FileOutputStream(file, true);
+                    data = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+                }
+                //每次最多等待100毫秒以便及时响应关闭，不使用中断以免关闭文件通道
+                Object[] first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                try {
+                    logBytes += this.write(data, batch);
+                    data.flush();
+                    if (syncWrites) {
+                        out.getChannel().force(false);
+                    }
+                    errors = 0;
+                } catch (IOException e) {
+                    //本批修改由重试时的快照写出
+                    resync = true;
+                    throw e;
+                } finally {
+                    batch.clear();
+                }
+            } catch (IOException | JobPersistenceException e) {
+                e.printStackTrace();
+                writeErrors.increment();
+                closeQuietly(out);
+                out = null;
+                resync = true;
+                errors++;
+                if (!running && errors >= SHUTDOWN_RETRIES) {
+                    failed.add(queue.size());
+                    break;
+                }
+                try {
+                    Thread.sleep(Math.min(MAX_BACKOFF_MILLIS, 100L << Math.min(errors, 10)));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        closeQuietly(out);
+    }
+
+    /**
+     * 日志超过压缩阈值及上次快照大小的2倍时需要压缩，快照本身较大时不会每批都重写
+     *
+     * @return 需要压缩时返回true
+     */
+    private boolean needsCompaction() {
+        return logBytes > Math.max(compactThresholdBytes, 2 * snapshotBytes);
+    }
+
+    private static void closeQuietly(FileOutputStream out) {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 序列化并写入日志条目，每个条目为长度、CRC32校验值及序列化内容，无法序列化的条目被跳过
+     *
+     * @param data    输出流
+     * @param entries 日志条目
+     * @return 写入的字节数
+     * @throws IOException 写入失败
+     */
+    private long write(DataOutputStream data, List<Object[]> entries) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        CRC32 crc = new CRC32();
+        long bytes = 0;
+        for (Object[] entry : entries) {
+            buffer.reset();
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(buffer)) {
+                objectOut.writeObject(entry);
+            } catch (IOException e) {
+                //JobDataMap中包含无法序列化的对象
+                e.printStackTrace();
+                failed.increment();
+                continue;
+            }
+            crc.reset();
+            crc.update(buffer.toByteArray(), 0, buffer.size());
+            data.writeInt(buffer.size());
+            data.writeInt((int) crc.getValue());
+            buffer.writeTo(data);
+            bytes += 8 + buffer.size();
+            written.increment();
+        }
+        return bytes;
+    }
+
+    private Object[] deserialize(byte[] payload) throws IOException, ClassNotFoundException {
+        InputStream in = new ByteArrayInputStream(payload);
+        try (ObjectInputStream objectIn = new ObjectInputStream(in) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                try {
+                    return loadHelper.loadClass(desc.getName());
+                } catch (ClassNotFoundException e) {
+                    return super.resolveClass(desc);
+                }
+            }
+        }) {
+            return (Object[]) objectIn.readObject();
+        }
+    }
+
+    /**
+     * 记录修改，只记录最外层的修改，需要持有锁
+     *
+     * @param entry 日志条目
+     */
+    private void log(Object... entry) {
+        if (nesting != 0 || !running || resync) {
+            return;
+        }
+        if (!queue.offer(entry)) {
+            //队列已满，由下一次写入的快照包含此修改
+            resync = true;
+        }
+    }
+
+    /**
+     * 获取等待写入的日志条目数
+     *
+     * @return 条目数
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 获取已写入的日志条目数
+     *
+     * @return 条目数
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * 获取写入或重放失败的日志条目数
+     *
+     * @return 条目数
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * 获取日志写入失败的次数，每次失败后按退避时间重试
+     *
+     * @return 次数
+     */
+    public long getWriteErrorCount() {
+        return writeErrors.sum();
+    }
+
+    /**
+     * 是否有尚未写入的修改需要以快照写出，写入持续失败时为true
+     *
+     * @return 需要写出快照时返回true
+     */
+    public boolean isResyncPending() {
+        return resync;
+    }
+
+    /**
+     * 获取当前日志文件的字节数
+     *
+     * @return 字节数
+     */
+    public long getLogBytes() {
+        return logBytes;
+    }
+
+    @Override
+    public void storeJob(JobDetail newJob, boolean replaceExisting) throws ObjectAlreadyExistsException {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.storeJob(newJob, replaceExisting);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.STORE_JOB, newJob.clone());
+        }
+    }
+
+    @Override
+    public void storeTrigger(OperableTrigger newTrigger, boolean replaceExisting) throws JobPersistenceException {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.storeTrigger(newTrigger, replaceExisting);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.STORE_TRIGGER, newTrigger.clone());
+        }
+    }
+
+    @Override
+    public boolean removeJob(JobKey jobKey) {
+        synchronized (lock) {
+            boolean found;
+            nesting++;
+            try {
+                found = super.removeJob(jobKey);
+            } finally {
+                nesting--;
+            }
+            if (found) {
+                this.log(Op.REMOVE_JOB, jobKey);
+            }
+            return found;
+        }
+    }
+
+    @Override
+    public boolean removeTrigger(TriggerKey triggerKey) {
+        synchronized (lock) {
+            boolean found;
+            nesting++;
+            try {
+                found = super.removeTrigger(triggerKey);
+            } finally {
+                nesting--;
+            }
+            if (found) {
+                this.log(Op.REMOVE_TRIGGER, triggerKey);
+            }
+            return found;
+        }
+    }
+
+    @Override
+    public boolean replaceTrigger(TriggerKey triggerKey, OperableTrigger newTrigger) throws JobPersistenceException {
+        synchronized (lock) {
+            boolean found;
+            nesting++;
+            try {
+                found = super.replaceTrigger(triggerKey, newTrigger);
+            } finally {
+                nesting--;
+            }
+            if (found) {
+                this.log(Op.REPLACE_TRIGGER, triggerKey, newTrigger.clone());
+            }
+            return found;
+        }
+    }
+
+    @Override
+    public void storeCalendar(String name, Calendar calendar, boolean replaceExisting, boolean updateTriggers)
+            throws ObjectAlreadyExistsException {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.storeCalendar(name, calendar, replaceExisting, updateTriggers);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.STORE_CALENDAR, name, calendar.clone(), updateTriggers);
+        }
+    }
+
+    @Override
+    public boolean removeCalendar(String calName) throws JobPersistenceException {
+        synchronized (lock) {
+            boolean found;
+            nesting++;
+            try {
+                found = super.removeCalendar(calName);
+            } finally {
+                nesting--;
+            }
+            if (found) {
+                this.log(Op.REMOVE_CALENDAR, calName);
+            }
+            return found;
+        }
+    }
+
+    @Override
+    public void pauseTrigger(TriggerKey triggerKey) {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.pauseTrigger(triggerKey);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.PAUSE_TRIGGER, triggerKey);
+        }
+    }
+
+    @Override
+    public List<String> pauseTriggers(GroupMatcher<TriggerKey> matcher) {
+        synchronized (lock) {
+            List<String> groups;
+            nesting++;
+            try {
+                groups = super.pauseTriggers(matcher);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.PAUSE_TRIGGERS, matcher);
+            return groups;
+        }
+    }
+
+    @Override
+    public void pauseJob(JobKey jobKey) {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.pauseJob(jobKey);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.PAUSE_JOB, jobKey);
+        }
+    }
+
+    @Override
+    public List<String> pauseJobs(GroupMatcher<JobKey> matcher) {
+        synchronized (lock) {
+            List<String> groups;
+            nesting++;
+            try {
+                groups = super.pauseJobs(matcher);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.PAUSE_JOBS, matcher);
+            return groups;
+        }
+    }
+
+    @Override
+    public void resumeTrigger(TriggerKey triggerKey) {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.resumeTrigger(triggerKey);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.RESUME_TRIGGER, triggerKey);
+        }
+    }
+
+    @Override
+    public List<String> resumeTriggers(GroupMatcher<TriggerKey> matcher) {
+        synchronized (lock) {
+            List<String> groups;
+            nesting++;
+            try {
+                groups = super.resumeTriggers(matcher);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.RESUME_TRIGGERS, matcher);
+            return groups;
+        }
+    }
+
+    @Override
+    public void resumeJob(JobKey jobKey) {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.resumeJob(jobKey);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.RESUME_JOB, jobKey);
+        }
+    }
+
+    @Override
+    public Collection<String> resumeJobs(GroupMatcher<JobKey> matcher) {
+        synchronized (lock) {
+            Collection<String> groups;
+            nesting++;
+            try {
+                groups = super.resumeJobs(matcher);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.RESUME_JOBS, matcher);
+            return groups;
+        }
+    }
+
+    @Override
+    public void pauseAll() {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.pauseAll();
+            } finally {
+                nesting--;
+            }
+            this.log(Op.PAUSE_ALL);
+        }
+    }
+
+    @Override
+    public void resumeAll() {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.resumeAll();
+            } finally {
+                nesting--;
+            }
+            this.log(Op.RESUME_ALL);
+        }
+    }
+
+    @Override
+    public void resetTriggerFromErrorState(TriggerKey triggerKey) throws JobPersistenceException {
+        synchronized (lock) {
+            nesting++;
+            try {
+                super.resetTriggerFromErrorState(triggerKey);
+            } finally {
+                nesting--;
+            }
+            this.log(Op.RESET_TRIGGER_FROM_ERROR, triggerKey);
+        }
+    }
+
+    /**
+     * 触发后记录触发器推进后的下次触发时间
+     */
+    @Override
+    public List<TriggerFiredResult> triggersFired(List<OperableTrigger> firedTriggers) {
+        synchronized (lock) {
+            List<TriggerFiredResult> results;
+            nesting++;
+            try {
+                results = super.triggersFired(firedTriggers);
+            } finally {
+                nesting--;
+            }
+            for (TriggerFiredResult result : results) {
+                if (result.getTriggerFiredBundle() != null) {
+                    OperableTrigger trigger = this.retrieveTrigger(result.getTriggerFiredBundle().getTrigger().getKey());
+                    if (trigger != null) {
+                        this.log(Op.STORE_TRIGGER, trigger);
+                    }
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * 执行完成后记录更新的JobDataMap及被删除的触发器
+     */
+    @Override
+    public void triggeredJobComplete(OperableTrigger trigger, JobDetail jobDetail,
+                                     Trigger.CompletedExecutionInstruction triggerInstCode) {
+        synchronized (lock) {
+            boolean existed = triggersByKey.containsKey(trigger.getKey());
+            nesting++;
+            try {
+                super.triggeredJobComplete(trigger, jobDetail, triggerInstCode);
+            } finally {
+                nesting--;
+            }
+            JobDetail stored = this.retrieveJob(jobDetail.getKey());
+            if (stored != null && stored.isPersistJobDataAfterExecution()) {
+                this.log(Op.STORE_JOB, stored);
+            }
+            if (existed && !triggersByKey.containsKey(trigger.getKey())) {
+                this.log(Op.REMOVE_TRIGGER, trigger.getKey());
+            }
+        }
+    }
+}
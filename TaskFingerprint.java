@@ -0,0 +1,167 @@
+package com.utils.demo.utils;
+
+import org.quartz.CalendarIntervalTrigger;
+import org.quartz.CronTrigger;
+import org.quartz.DailyTimeIntervalTrigger;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>任务内容指纹
+ *
+ * <p>按影响调度的内容计算JobDetail及Trigger的64位哈希，用于比较期望的任务与调度器中已注册的任务是否相同<br>
+ * JobDetail包含任务类、持久化、恢复、描述及JobDataMap<br>
+ * Trigger包含触发器类型、cron表达式及时区或重复间隔、日历、优先级、misfire策略、结束时间、描述及JobDataMap<br>
+ * 不包含开始时间，每次创建的触发器开始时间不同，不应视为修改<br>
+ * JobDataMap中的数组按元素比较，其他对象按序列化后的内容比较，不可序列化的对象按toString比较
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class TaskFingerprint {
+
+    private TaskFingerprint() {
+    }
+
+    /**
+     * 计算JobDetail的指纹
+     *
+     * @param jobDetail 任务JobDetail实例
+     * @return 指纹
+     */
+    public static long of(JobDetail jobDetail) {
+        StringBuilder content = new StringBuilder(128)
+                .append(jobDetail.getJobClass().getName())
+                .append('|').append(jobDetail.isDurable())
+                .append('|').append(jobDetail.requestsRecovery())
+                .append('|').append(jobDetail.getDescription());
+        appendDataMap(content, jobDetail.getJobDataMap());
+        return hash(content);
+    }
+
+    /**
+     * 计算Trigger的指纹
+     *
+     * @param trigger 触发器实例
+     * @return 指纹
+     */
+    public static long of(Trigger trigger) {
+        StringBuilder content = new StringBuilder(128).append(trigger.getClass().getName());
+        if (trigger instanceof CronTrigger) {
+            CronTrigger cronTrigger = (CronTrigger) trigger;
+            content.append('|').append(cronTrigger.getCronExpression())
+                    .append('|').append(cronTrigger.getTimeZone() == null ? null : cronTrigger.getTimeZone().getID());
+        } else if (trigger instanceof SimpleTrigger) {
+            SimpleTrigger simpleTrigger = (SimpleTrigger) trigger;
+            content.append('|').append(simpleTrigger.getRepeatInterval())
+                    .append('|').append(simpleTrigger.getRepeatCount());
+        } else if (trigger instanceof CalendarIntervalTrigger) {
+            CalendarIntervalTrigger intervalTrigger = (CalendarIntervalTrigger) trigger;
+            content.append('|').append(intervalTrigger.getRepeatInterval())
+                    .append('|').append(intervalTrigger.getRepeatIntervalUnit());
+        } else if (trigger instanceof DailyTimeIntervalTrigger) {
+            DailyTimeIntervalTrigger intervalTrigger = (DailyTimeIntervalTrigger) trigger;
+            content.append('|').append(intervalTrigger.getRepeatInterval())
+                    .append('|').append(intervalTrigger.getRepeatIntervalUnit())
+                    .append('|').append(intervalTrigger.getStartTimeOfDay())
+                    .append('|').append(intervalTrigger.getEndTimeOfDay())
+                    .append('|').append(intervalTrigger.getDaysOfWeek());
+        }
+        Date endTime = trigger.getEndTime();
+        //JobKey在注册时才设置，由所属的JobDetail区分
+        content.append('|').append(trigger.getCalendarName())
+                .append('|').append(trigger.getPriority())
+                .append('|').append(trigger.getMisfireInstruction())
+                .append('|').append(endTime == null ? null : endTime.getTime())
+                .append('|').append(trigger.getDescription());
+        appendDataMap(content, trigger.getJobDataMap());
+        return hash(content);
+    }
+
+    /**
+     * 按键排序追加JobDataMap内容
+     *
+     * @param content   内容
+     * @param dataMap   JobDataMap
+     */
+    private static void appendDataMap(StringBuilder content, JobDataMap dataMap) {
+        if (dataMap == null || dataMap.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : new TreeMap<>(dataMap.getWrappedMap()).entrySet()) {
+            content.append('|').append(entry.getKey()).append('=');
+            appendValue(content, entry.getValue());
+        }
+    }
+
+    /**
+     * 追加JobDataMap中值的稳定形式
+     *
+     * <p>字符串、基本类型包装类及枚举使用类名与toString，数组按元素展开，
+     * 其他可序列化的值使用类名与序列化字节的哈希，不可序列化的值退回到toString
+     *
+     * @param content 内容
+     * @param value   JobDataMap中的值
+     */
+    private static void appendValue(StringBuilder content, Object value) {
+        if (value == null) {
+            content.append((Object) null);
+            return;
+        }
+        content.append(value.getClass().getName()).append(':');
+        if (value instanceof String || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum) {
+            content.append(value);
+        } else if (value.getClass().isArray()) {
+            content.append(Arrays.deepToString(new Object[]{value}));
+        } else if (value instanceof Serializable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            } catch (IOException e) {
+                content.append(value);
+                return;
+            }
+            content.append(Long.toHexString(hash(bytes.toByteArray())));
+        } else {
+            content.append(value);
+        }
+    }
+
+    /**
+     * 64位FNV-1a哈希
+     *
+     * @param content 内容
+     * @return 哈希值
+     */
+    private static long hash(CharSequence content) {
+        return hash(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 64位FNV-1a哈希
+     *
+     * @param content 内容
+     * @return 哈希值
+     */
+    private static long hash(byte[] content) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : content) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,161 @@
+package com.utils.demo.utils;
+
+import org.quartz.utils.Key;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>批量操作结果报告
+ *
+ * <p>记录批量操作中每个Key的处理结果
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class TaskReport {
+
+    /**
+     * 新注册的Key
+     */
+    private final Set<Key<?>> inserted = new LinkedHashSet<>();
+
+    /**
+     * 已注册并被重启的Key
+     */
+    private final Set<Key<?>> resumed = new LinkedHashSet<>();
+
+    /**
+     * 已注册并被更新的Key
+     */
+    private final Set<Key<?>> updated = new LinkedHashSet<>();
+
+    /**
+     * 已注册且内容相同、未做修改的Key
+     */
+    private final Set<Key<?>> unchanged = new LinkedHashSet<>();
+
+    /**
+     * 被删除的Key
+     */
+    private final Set<Key<?>> deleted = new LinkedHashSet<>();
+
+    /**
+     * 处理失败的Key及其异常
+     */
+    private final Map<Key<?>, Exception> failed = new LinkedHashMap<>();
+
+    void addInserted(Key<?> key) {
+        inserted.add(key);
+    }
+
+    void addResumed(Key<?> key) {
+        resumed.add(key);
+    }
+
+    void addUpdated(Key<?> key) {
+        updated.add(key);
+    }
+
+    void addUnchanged(Key<?> key) {
+        unchanged.add(key);
+    }
+
+    void addDeleted(Key<?> key) {
+        deleted.add(key);
+    }
+
+    void addFailed(Key<?> key, Exception e) {
+        failed.put(key, e);
+    }
+
+    /**
+     * 合并另一份报告的结果
+     *
+     * @param other 另一份批量操作结果报告
+     */
+    void merge(TaskReport other) {
+        inserted.addAll(other.inserted);
+        resumed.addAll(other.resumed);
+        updated.addAll(other.updated);
+        unchanged.addAll(other.unchanged);
+        deleted.addAll(other.deleted);
+        failed.putAll(other.failed);
+    }
+
+    /**
+     * 获取新注册的Key
+     *
+     * @return 新注册的Key集合
+     */
+    public Set<Key<?>> getInserted() {
+        return Collections.unmodifiableSet(inserted);
+    }
+
+    /**
+     * 获取已注册并被重启的Key
+     *
+     * @return 被重启的Key集合
+     */
+    public Set<Key<?>> getResumed() {
+        return Collections.unmodifiableSet(resumed);
+    }
+
+    /**
+     * 获取已注册并被更新的Key
+     *
+     * @return 被更新的Key集合
+     */
+    public Set<Key<?>> getUpdated() {
+        return Collections.unmodifiableSet(updated);
+    }
+
+    /**
+     * 获取已注册且内容相同、未做修改的Key
+     *
+     * @return 未修改的Key集合
+     */
+    public Set<Key<?>> getUnchanged() {
+        return Collections.unmodifiableSet(unchanged);
+    }
+
+    /**
+     * 获取被删除的Key
+     *
+     * @return 被删除的Key集合
+     */
+    public Set<Key<?>> getDeleted() {
+        return Collections.unmodifiableSet(deleted);
+    }
+
+    /**
+     * 获取处理失败的Key及其异常
+     *
+     * @return 失败的Key与异常的映射
+     */
+    public Map<Key<?>, Exception> getFailed() {
+        return Collections.unmodifiableMap(failed);
+    }
+
+    /**
+     * 是否全部处理成功
+     *
+     * @return 没有失败的Key时返回true
+     */
+    public boolean isSuccess() {
+        return failed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskReport{inserted=" + inserted.size()
+                + ", resumed=" + resumed.size()
+                + ", updated=" + updated.size()
+                + ", unchanged=" + unchanged.size()
+                + ", deleted=" + deleted.size()
+                + ", failed=" + failed.size() + "}";
+    }
+}
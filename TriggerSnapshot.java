@@ -0,0 +1,43 @@
+package com.utils.demo.utils;
+
+import org.quartz.Trigger;
+
+/**
+ * <p>触发器及其状态
+ *
+ * <p>由QuartzManagerUtil.streamTriggers()逐个触发器组读取
+ *
+ * @version 1.0.0
+ * @author lixin000122
+ */
+public final class TriggerSnapshot {
+
+    private final Trigger trigger;
+
+    private final Trigger.TriggerState state;
+
+    TriggerSnapshot(Trigger trigger, Trigger.TriggerState state) {
+        this.trigger = trigger;
+        this.state = state;
+    }
+
+    /**
+     * @return 触发器
+     */
+    public Trigger getTrigger() {
+        return trigger;
+    }
+
+    /**
+     * @return 读取时的触发器状态
+     */
+    public Trigger.TriggerState getState() {
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        return "TriggerSnapshot{key=" + trigger.getKey() + ", state=" + state
+                + ", nextFireTime=" + trigger.getNextFireTime() + "}";
+    }
+}